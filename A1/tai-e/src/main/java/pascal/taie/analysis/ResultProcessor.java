@@ -25,6 +25,7 @@ package pascal.taie.analysis;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import pascal.taie.World;
+import pascal.taie.analysis.dataflow.solver.SolverMetrics;
 import pascal.taie.config.AnalysisConfig;
 import pascal.taie.ir.IR;
 import pascal.taie.ir.IRPrinter;
@@ -41,6 +42,7 @@ import java.io.IOException;
 import java.io.PrintStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.LinkedHashSet;
@@ -97,6 +99,10 @@ public class ResultProcessor extends ProgramAnalysis {
                 .collect(Collectors.groupingBy(id -> World.get().getResult(id) != null));
         if (groups.containsKey(false)) {
             processIntraResults(groups.get(false));
+            String metricsFile = getOptions().getString("metrics-file");
+            if (metricsFile != null) {
+                dumpSolverMetrics(groups.get(false), metricsFile);
+            }
         }
         if (getOptions().getBoolean("log-mismatches")) {
             mismatches.forEach(logger::info);
@@ -153,7 +159,12 @@ public class ResultProcessor extends ProgramAnalysis {
     }
 
     private void processIntraResults(List<String> analyses) {
-        Stream<JMethod> methods = World.get()
+        processResults(getIntraMethods(), analyses,
+                (m, id) -> m.getIR().getResult(id));
+    }
+
+    private static Stream<JMethod> getIntraMethods() {
+        return World.get()
                 .getClassHierarchy()
                 .applicationClasses()
                 .map(JClass::getDeclaredMethods)
@@ -161,7 +172,39 @@ public class ResultProcessor extends ProgramAnalysis {
                 .filter(m -> !m.isAbstract() && !m.isNative())
                 .sorted(Comparator.comparing(m ->
                         m.getIR().getStmt(0).getLineNumber()));
-        processResults(methods, analyses, (m, id) -> m.getIR().getResult(id));
+    }
+
+    /**
+     * Dumps the solver metrics of given intra-procedural analyses to file.
+     * The report is in JSON if the file name ends with ".json",
+     * otherwise it is in CSV.
+     */
+    private static void dumpSolverMetrics(List<String> analyses, String file) {
+        boolean json = file.endsWith(".json");
+        List<String> records = new ArrayList<>();
+        getIntraMethods().forEach(method -> analyses.forEach(id -> {
+            SolverMetrics metrics = method.getIR()
+                    .getResult(SolverMetrics.getResultKey(id));
+            if (metrics != null) {
+                records.add(json ?
+                        String.format("  {\"method\": \"%s\", \"analysis\": \"%s\", \"metrics\": %s}",
+                                method, id, metrics.toJSON()) :
+                        String.format("\"%s\",%s,%s",
+                                method, id, metrics.toCSV()));
+            }
+        }));
+        try (PrintStream out = new PrintStream(file)) {
+            if (json) {
+                out.println("[");
+                out.println(String.join(",\n", records));
+                out.println("]");
+            } else {
+                out.println("method,analysis," + SolverMetrics.CSV_HEADER);
+                records.forEach(out::println);
+            }
+        } catch (FileNotFoundException e) {
+            throw new RuntimeException("Failed to open metrics file", e);
+        }
     }
 
     private void processResults(Stream<JMethod> methods, List<String> analyses,
@@ -25,6 +25,7 @@ package pascal.taie.analysis.dataflow.analysis;
 import pascal.taie.analysis.MethodAnalysis;
 import pascal.taie.analysis.dataflow.fact.DataflowResult;
 import pascal.taie.analysis.dataflow.solver.Solver;
+import pascal.taie.analysis.dataflow.solver.SolverMetrics;
 import pascal.taie.analysis.graph.cfg.CFG;
 import pascal.taie.analysis.graph.cfg.CFGBuilder;
 import pascal.taie.analysis.graph.cfg.Edge;
@@ -42,10 +43,17 @@ public abstract class AbstractDataflowAnalysis<Node, Fact>
         solver = Solver.makeSolver(this);
     }
 
+    /**
+     * Solves the data-flow problem of given IR. The metrics of the solver
+     * are stored in the IR with key {@link SolverMetrics#getResultKey(String)}.
+     */
     @Override
     public DataflowResult<Node, Fact> analyze(IR ir) {
         CFG<Node> cfg = ir.getResult(CFGBuilder.ID);
-        return solver.solve(cfg);
+        SolverMetrics metrics = new SolverMetrics();
+        DataflowResult<Node, Fact> result = solver.solve(cfg, metrics);
+        ir.storeResult(SolverMetrics.getResultKey(getId()), metrics);
+        return result;
     }
 
     /**
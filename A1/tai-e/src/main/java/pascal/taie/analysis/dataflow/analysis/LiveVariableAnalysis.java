@@ -22,7 +22,7 @@
 
 package pascal.taie.analysis.dataflow.analysis;
 
-import pascal.taie.analysis.dataflow.fact.SetFact;
+import pascal.taie.analysis.dataflow.fact.IndexedBitSetFact;
 import pascal.taie.analysis.graph.cfg.CFG;
 import pascal.taie.config.AnalysisConfig;
 import pascal.taie.ir.exp.LValue;
@@ -30,15 +30,13 @@ import pascal.taie.ir.exp.RValue;
 import pascal.taie.ir.exp.Var;
 import pascal.taie.ir.stmt.Stmt;
 
-import java.util.Collection;
-import java.util.List;
-import java.util.function.Predicate;
-
 /**
  * Implementation of classic live variable analysis.
+ * Live variables are represented as bit vectors indexed by
+ * {@link Var#getIndex()}, so that facts are updated in place.
  */
 public class LiveVariableAnalysis extends
-        AbstractDataflowAnalysis<Stmt, SetFact<Var>> {
+        AbstractDataflowAnalysis<Stmt, IndexedBitSetFact<Var>> {
 
     public static final String ID = "livevar";
 
@@ -52,45 +50,51 @@ public class LiveVariableAnalysis extends
     }
 
     @Override
-    public SetFact<Var> newBoundaryFact(CFG<Stmt> cfg) {
-        // TODO - finish me
-        return new SetFact<>();
+    public IndexedBitSetFact<Var> newBoundaryFact(CFG<Stmt> cfg) {
+        return new IndexedBitSetFact<>(cfg.getIR()::getVar);
     }
 
     @Override
-    public SetFact<Var> newInitialFact() {
-        // TODO - finish me
-        return new SetFact<>();
+    public IndexedBitSetFact<Var> newInitialFact(CFG<Stmt> cfg) {
+        return new IndexedBitSetFact<>(cfg.getIR()::getVar);
     }
 
     @Override
-    public void meetInto(SetFact<Var> fact, SetFact<Var> target) {
-        // TODO - finish me
+    public IndexedBitSetFact<Var> newInitialFact() {
+        // without the CFG, the fact is bound to the variables of
+        // the analyzed method when the first variable is added to it
+        return IndexedBitSetFact.unbound(var -> var.getMethod().getIR()::getVar);
+    }
+
+    @Override
+    public void meetInto(IndexedBitSetFact<Var> fact, IndexedBitSetFact<Var> target) {
         target.union(fact);
     }
 
     @Override
-    public boolean transferNode(Stmt stmt, SetFact<Var> in, SetFact<Var> out) {
-        // TODO - finish me
-        // System.out.println("SB");
-        SetFact<Var> useB = new SetFact<>();
-        // out - defB
-        useB.union(out);
-        if (stmt.getDef().isPresent()) {
-            LValue l = stmt.getDef().get();
-            if (l instanceof Var) {
-                useB.remove((Var) l);
+    public boolean transferNode(Stmt stmt, IndexedBitSetFact<Var> in, IndexedBitSetFact<Var> out) {
+        // IN = use ∪ (OUT - def). As facts start from empty set and
+        // only grow during the iteration, IN can be updated in place
+        // by unioning the new live variables into it.
+        boolean changed = false;
+        for (RValue use : stmt.getUses()) {
+            if (use instanceof Var var) {
+                changed |= in.add(var);
             }
         }
-
-        for (RValue r : stmt.getUses()) {
-            if (r instanceof Var) {
-                useB.add((Var) r);
+        Var def = null;
+        if (stmt.getDef().isPresent()) {
+            LValue lValue = stmt.getDef().get();
+            if (lValue instanceof Var var) {
+                def = var;
             }
         }
-
-        boolean change = !in.equals(useB);
-        if (change) in.set(useB);
-        return change;
+        if (def == null || in.contains(def)) {
+            // def is also used by stmt, thus it is live before stmt
+            changed |= in.union(out);
+        } else {
+            changed |= in.unionExcept(out, def);
+        }
+        return changed;
     }
 }
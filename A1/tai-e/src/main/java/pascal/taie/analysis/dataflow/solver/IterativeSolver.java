@@ -35,22 +35,27 @@ class IterativeSolver<Node, Fact> extends Solver<Node, Fact> {
     }
 
     @Override
-    protected void doSolveForward(CFG<Node> cfg, DataflowResult<Node, Fact> result) {
+    protected void doSolveForward(CFG<Node> cfg, DataflowResult<Node, Fact> result,
+                                  SolverMetrics metrics) {
         throw new UnsupportedOperationException();
     }
 
     @Override
-    protected void doSolveBackward(CFG<Node> cfg, DataflowResult<Node, Fact> result) {
+    protected void doSolveBackward(CFG<Node> cfg, DataflowResult<Node, Fact> result,
+                                   SolverMetrics metrics) {
         // TODO - finish me
         boolean change;
         do {
             change = false;
+            metrics.countIteration();
             for (Node node: cfg) {
                 if (!(cfg.isExit(node))) {
                     for (Node successor : cfg.getSuccsOf(node)) {
                         analysis.meetInto(result.getInFact(successor), result.getOutFact(node));
+                        metrics.countMeet();
                     }
                     change |= (analysis.transferNode(node, result.getInFact(node), result.getOutFact(node)));
+                    metrics.countTransfer();
                 }
             }
         } while (change);
@@ -56,8 +56,24 @@ public abstract class Solver<Node, Fact> {
      * @return the analysis result
      */
     public DataflowResult<Node, Fact> solve(CFG<Node> cfg) {
+        return solve(cfg, new SolverMetrics());
+    }
+
+    /**
+     * Starts this solver on the given CFG, and records the work taken
+     * by the solver in {@code metrics}.
+     *
+     * @param cfg     control-flow graph where the analysis is performed on
+     * @param metrics metrics of this run of the solver
+     * @return the analysis result
+     */
+    public DataflowResult<Node, Fact> solve(CFG<Node> cfg, SolverMetrics metrics) {
+        long start = System.nanoTime();
         DataflowResult<Node, Fact> result = initialize(cfg);
-        doSolve(cfg, result);
+        long initialized = System.nanoTime();
+        metrics.setInitTime(initialized - start);
+        doSolve(cfg, result, metrics);
+        metrics.setSolveTime(System.nanoTime() - initialized);
         return result;
     }
 
@@ -86,8 +102,8 @@ public abstract class Solver<Node, Fact> {
         // result.setOutFact(cfg.getExit(), analysis.newBoundaryFact(cfg));
         for (Node n : cfg) {
             if (!(cfg.isExit(n))) {
-                result.setInFact(n, analysis.newInitialFact());
-                result.setOutFact(n, analysis.newInitialFact());
+                result.setInFact(n, analysis.newInitialFact(cfg));
+                result.setOutFact(n, analysis.newInitialFact(cfg));
             }
         }
     }
@@ -95,15 +111,18 @@ public abstract class Solver<Node, Fact> {
     /**
      * Solves the data-flow problem for given CFG.
      */
-    private void doSolve(CFG<Node> cfg, DataflowResult<Node, Fact> result) {
+    private void doSolve(CFG<Node> cfg, DataflowResult<Node, Fact> result,
+                         SolverMetrics metrics) {
         if (analysis.isForward()) {
-            doSolveForward(cfg, result);
+            doSolveForward(cfg, result, metrics);
         } else {
-            doSolveBackward(cfg, result);
+            doSolveBackward(cfg, result, metrics);
         }
     }
 
-    protected abstract void doSolveForward(CFG<Node> cfg, DataflowResult<Node, Fact> result);
+    protected abstract void doSolveForward(CFG<Node> cfg, DataflowResult<Node, Fact> result,
+                                           SolverMetrics metrics);
 
-    protected abstract void doSolveBackward(CFG<Node> cfg, DataflowResult<Node, Fact> result);
+    protected abstract void doSolveBackward(CFG<Node> cfg, DataflowResult<Node, Fact> result,
+                                            SolverMetrics metrics);
 }
@@ -0,0 +1,126 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.solver;
+
+import java.util.Locale;
+
+/**
+ * Records how much work a {@link Solver} takes to solve the data-flow
+ * problem of a method, i.e., the number of iterations (passes over the
+ * CFG), node transfers and meets, and the time spent in initialization
+ * and solving.
+ */
+public class SolverMetrics {
+
+    /**
+     * Header of the CSV representation, see {@link #toCSV()}.
+     */
+    public static final String CSV_HEADER =
+            "iterations,transfers,meets,init-time(ms),solve-time(ms)";
+
+    private int iterations;
+
+    private long transfers;
+
+    private long meets;
+
+    private long initTime;
+
+    private long solveTime;
+
+    /**
+     * @return the key of the metrics of given analysis stored in the IR.
+     */
+    public static String getResultKey(String analysisId) {
+        return analysisId + "-metrics";
+    }
+
+    void countIteration() {
+        ++iterations;
+    }
+
+    void countTransfer() {
+        ++transfers;
+    }
+
+    void countMeet() {
+        ++meets;
+    }
+
+    void setInitTime(long nanos) {
+        initTime = nanos;
+    }
+
+    void setSolveTime(long nanos) {
+        solveTime = nanos;
+    }
+
+    public int getIterations() {
+        return iterations;
+    }
+
+    public long getTransfers() {
+        return transfers;
+    }
+
+    public long getMeets() {
+        return meets;
+    }
+
+    /**
+     * @return time of initialization in nanoseconds.
+     */
+    public long getInitTime() {
+        return initTime;
+    }
+
+    /**
+     * @return time of solving (excluding initialization) in nanoseconds.
+     */
+    public long getSolveTime() {
+        return solveTime;
+    }
+
+    /**
+     * @return the CSV representation of this metrics,
+     * whose columns are given by {@link #CSV_HEADER}.
+     */
+    public String toCSV() {
+        return String.format(Locale.ROOT, "%d,%d,%d,%.3f,%.3f", iterations, transfers,
+                meets, initTime / 1e6, solveTime / 1e6);
+    }
+
+    /**
+     * @return the JSON representation of this metrics.
+     */
+    public String toJSON() {
+        return String.format(Locale.ROOT, "{\"iterations\": %d, \"transfers\": %d," +
+                        " \"meets\": %d, \"initTime\": %.3f, \"solveTime\": %.3f}",
+                iterations, transfers, meets, initTime / 1e6, solveTime / 1e6);
+    }
+
+    @Override
+    public String toString() {
+        return toJSON();
+    }
+}
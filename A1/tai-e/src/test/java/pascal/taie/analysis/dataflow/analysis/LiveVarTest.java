@@ -22,8 +22,19 @@
 
 package pascal.taie.analysis.dataflow.analysis;
 
+import org.junit.Assert;
 import org.junit.Test;
+import pascal.taie.Main;
+import pascal.taie.analysis.ResultProcessor;
 import pascal.taie.analysis.Tests;
+import pascal.taie.analysis.dataflow.solver.SolverMetrics;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 public class LiveVarTest {
 
@@ -61,4 +72,80 @@ public class LiveVarTest {
     public void Reference() {
         testLV("Reference");
     }
+
+    /**
+     * Runs live variable analysis on class Assign, and dumps
+     * the solver metrics to given file.
+     *
+     * @return lines of the dumped metrics file.
+     */
+    private static List<String> dumpMetrics(String metricsFile) throws IOException {
+        String classPath = "src/test/resources/dataflow/livevar";
+        Path path = Path.of(metricsFile);
+        Files.deleteIfExists(path);
+        Main.main(new String[]{
+                "-pp", "-cp", classPath, "-m", "Assign",
+                "-a", LiveVariableAnalysis.ID + "=strongly:false",
+                "-a", String.format("%s=analyses:[%s];action:compare;file:%s;metrics-file:%s",
+                ResultProcessor.ID, LiveVariableAnalysis.ID,
+                classPath + "/Assign-livevar-expected.txt", metricsFile),
+        });
+        return Files.readAllLines(path);
+    }
+
+    /**
+     * Checks the metrics of a method, where each iteration of
+     * the iterative solver transfers every node except the exit.
+     */
+    private static void checkMetrics(int iterations, long transfers, long meets) {
+        // the first iteration always changes the facts, and
+        // the last one finds that the facts reach the fixed point
+        Assert.assertTrue(iterations >= 2);
+        Assert.assertTrue(transfers > 0);
+        Assert.assertEquals(0, transfers % iterations);
+        Assert.assertTrue(meets > 0);
+    }
+
+    @Test
+    public void testMetricsCSV() throws IOException {
+        List<String> lines = dumpMetrics("output/Assign-livevar-metrics.csv");
+        Assert.assertEquals(List.of(
+                "method,analysis," + SolverMetrics.CSV_HEADER,
+                "\"<Assign: void <init>()>\"",
+                "\"<Assign: int assign(int,int,int)>\""),
+                lines.stream()
+                        .map(line -> line.startsWith("\"") ?
+                                line.substring(0, line.lastIndexOf('"') + 1) : line)
+                        .toList());
+        for (String line : lines.subList(1, lines.size())) {
+            String[] columns = line.substring(line.lastIndexOf('"') + 2).split(",");
+            Assert.assertEquals(6, columns.length);
+            Assert.assertEquals(LiveVariableAnalysis.ID, columns[0]);
+            checkMetrics(Integer.parseInt(columns[1]),
+                    Long.parseLong(columns[2]), Long.parseLong(columns[3]));
+        }
+    }
+
+    @Test
+    public void testMetricsJSON() throws IOException {
+        List<String> lines = dumpMetrics("output/Assign-livevar-metrics.json");
+        Assert.assertEquals("[", lines.get(0));
+        Assert.assertEquals("]", lines.get(lines.size() - 1));
+        Pattern record = Pattern.compile("  \\{\"method\": \"(.+)\", \"analysis\": \"(.+)\"," +
+                " \"metrics\": \\{\"iterations\": (\\d+), \"transfers\": (\\d+)," +
+                " \"meets\": (\\d+), \"initTime\": [\\d.]+, \"solveTime\": [\\d.]+}},?");
+        List<String> records = lines.subList(1, lines.size() - 1);
+        Assert.assertEquals(2, records.size());
+        List<String> methods = List.of(
+                "<Assign: void <init>()>", "<Assign: int assign(int,int,int)>");
+        for (int i = 0; i < records.size(); ++i) {
+            Matcher matcher = record.matcher(records.get(i));
+            Assert.assertTrue(records.get(i), matcher.matches());
+            Assert.assertEquals(methods.get(i), matcher.group(1));
+            Assert.assertEquals(LiveVariableAnalysis.ID, matcher.group(2));
+            checkMetrics(Integer.parseInt(matcher.group(3)),
+                    Long.parseLong(matcher.group(4)), Long.parseLong(matcher.group(5)));
+        }
+        Assert.assertFalse(records.get(records.size() - 1).endsWith(","));
+    }
 }
@@ -0,0 +1,78 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.fact;
+
+import org.junit.Assert;
+import org.junit.Test;
+import pascal.taie.util.Indexable;
+
+import java.util.List;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+public class IndexedBitSetFactTest {
+
+    private record Element(int index) implements Indexable {
+
+        @Override
+        public int getIndex() {
+            return index;
+        }
+    }
+
+    private static final List<Element> ELEMENTS = IntStream.range(0, 100)
+            .mapToObj(Element::new)
+            .toList();
+
+    private static final IntFunction<Element> UNIVERSE = ELEMENTS::get;
+
+    @Test
+    public void testUnboundAdd() {
+        IndexedBitSetFact<Element> fact = IndexedBitSetFact.unbound(e -> UNIVERSE);
+        Assert.assertTrue(fact.isEmpty());
+        Assert.assertEquals("[]", fact.toString());
+        fact.add(ELEMENTS.get(70));
+        fact.add(ELEMENTS.get(3));
+        Assert.assertEquals(List.of(ELEMENTS.get(3), ELEMENTS.get(70)),
+                fact.stream().collect(Collectors.toList()));
+        Assert.assertEquals(List.of(ELEMENTS.get(3), ELEMENTS.get(70)),
+                fact.copy().stream().collect(Collectors.toList()));
+    }
+
+    @Test
+    public void testUnboundUnion() {
+        IndexedBitSetFact<Element> bound = new IndexedBitSetFact<>(UNIVERSE);
+        bound.add(ELEMENTS.get(5));
+        IndexedBitSetFact<Element> fact = IndexedBitSetFact.unbound(e -> {
+            throw new AssertionError("should be bound by union");
+        });
+        Assert.assertTrue(fact.union(bound));
+        Assert.assertEquals(bound, fact);
+        Assert.assertEquals(List.of(ELEMENTS.get(5)),
+                fact.stream().collect(Collectors.toList()));
+        // already bound, thus adding does not consult universeOf
+        fact.add(ELEMENTS.get(6));
+        Assert.assertEquals(2, fact.size());
+    }
+}
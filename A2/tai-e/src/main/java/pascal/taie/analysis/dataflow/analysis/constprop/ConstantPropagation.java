@@ -70,12 +70,7 @@ public class ConstantPropagation extends
     @Override
     public void meetInto(CPFact fact, CPFact target) {
         // TODO - finish me
-        for (Var key : target.keySet()) {
-            target.update(key, meetValue(target.get(key), fact.get(key)));
-        }
-        for (Var key : fact.keySet()) {
-            target.update(key, meetValue(target.get(key), fact.get(key)));
-        }
+        target.meet(fact);
     }
 
     /**
@@ -107,10 +102,7 @@ public class ConstantPropagation extends
     @Override
     public boolean transferNode(Stmt stmt, CPFact in, CPFact out) {
         // TODO - finish me
-        boolean change = false;
-        for (Var key : in.keySet()) {
-            change |= out.update(key, in.get(key));
-        }
+        boolean change = out.copyFrom(in);
         if (stmt instanceof DefinitionStmt<?,?>) {
             Value expValue = evaluate(((DefinitionStmt<?,?>) stmt).getRValue(), in);
             if (stmt.getDef().isPresent()) {
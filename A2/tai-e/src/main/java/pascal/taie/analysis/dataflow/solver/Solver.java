@@ -25,6 +25,9 @@ package pascal.taie.analysis.dataflow.solver;
 import pascal.taie.analysis.dataflow.analysis.DataflowAnalysis;
 import pascal.taie.analysis.dataflow.fact.DataflowResult;
 import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.config.ConfigException;
+
+import javax.annotation.Nullable;
 
 /**
  * Base class for data-flow analysis solver, which provides common
@@ -46,7 +49,30 @@ public abstract class Solver<Node, Fact> {
      */
     public static <Node, Fact> Solver<Node, Fact> makeSolver(
             DataflowAnalysis<Node, Fact> analysis) {
-        return new WorkListSolver<>(analysis);
+        return makeSolver(analysis, null);
+    }
+
+    /**
+     * Static factory method to create a new solver of given kind
+     * for given analysis.
+     *
+     * @param kind kind of the solver, i.e., "worklist" (default if
+     *             {@code kind} is null), "priority" which processes
+     *             nodes in reverse post-order of the CFG, or "wto" which
+     *             iterates loops following a weak topological ordering
+     *             of the CFG.
+     */
+    public static <Node, Fact> Solver<Node, Fact> makeSolver(
+            DataflowAnalysis<Node, Fact> analysis, @Nullable String kind) {
+        if (kind == null) {
+            return new WorkListSolver<>(analysis);
+        }
+        return switch (kind) {
+            case "worklist" -> new WorkListSolver<>(analysis);
+            case "priority" -> new PriorityWorkListSolver<>(analysis);
+            case "wto" -> new WTOSolver<>(analysis);
+            default -> throw new ConfigException("Unknown data-flow solver: " + kind);
+        };
     }
 
     /**
@@ -0,0 +1,268 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.solver;
+
+import pascal.taie.analysis.dataflow.analysis.DataflowAnalysis;
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.Sets;
+
+import javax.annotation.Nullable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Solver which follows the recursive iteration strategy over a weak
+ * topological ordering (WTO) of the CFG, as proposed by Bourdoncle in
+ * "Efficient chaotic iteration strategies with widenings".
+ * <p>
+ * A WTO is a hierarchical decomposition of the CFG into components:
+ * each (possibly nested) loop is a component with a head, and the solver
+ * iterates a component until the fact of its head is stable before it
+ * moves on, so an inner loop is stabilized for every iteration of its
+ * outer loop, and the nodes after a loop are processed only once the
+ * loop has converged. After a component has been iterated several times,
+ * facts flow into its head via {@link DataflowAnalysis#widenInto}.
+ */
+class WTOSolver<Node, Fact> extends Solver<Node, Fact> {
+
+    /**
+     * Number of iterations over a component before widening is applied
+     * at its head.
+     */
+    private static final int WIDENING_DELAY = 3;
+
+    WTOSolver(DataflowAnalysis<Node, Fact> analysis) {
+        super(analysis);
+    }
+
+    @Override
+    protected void doSolveForward(CFG<Node> cfg, DataflowResult<Node, Fact> result) {
+        iterate(new WTOBuilder(cfg, true).build(), cfg, result, true);
+    }
+
+    @Override
+    protected void doSolveBackward(CFG<Node> cfg, DataflowResult<Node, Fact> result) {
+        iterate(new WTOBuilder(cfg, false).build(), cfg, result, false);
+    }
+
+    private void iterate(List<Component<Node>> components, CFG<Node> cfg,
+                         DataflowResult<Node, Fact> result, boolean forward) {
+        for (Component<Node> component : components) {
+            Node head = component.head();
+            update(head, cfg, result, forward, false);
+            if (component.body() != null) {
+                int iterations = 0;
+                do {
+                    iterate(component.body(), cfg, result, forward);
+                    ++iterations;
+                } while (update(head, cfg, result, forward,
+                        iterations >= WIDENING_DELAY));
+            }
+        }
+    }
+
+    /**
+     * Meets (or widens) the facts flowing into given node,
+     * and applies the transfer function of the node.
+     *
+     * @return true if the transfer changed the out (in) fact, otherwise false.
+     */
+    private boolean update(Node node, CFG<Node> cfg,
+                           DataflowResult<Node, Fact> result,
+                           boolean forward, boolean widen) {
+        if (forward) {
+            if (cfg.isEntry(node)) {
+                return false;
+            }
+            Fact in = result.getInFact(node);
+            for (Node pred : cfg.getPredsOf(node)) {
+                flowInto(result.getOutFact(pred), in, widen);
+            }
+            return analysis.transferNode(node, in, result.getOutFact(node));
+        } else {
+            if (cfg.isExit(node)) {
+                return false;
+            }
+            Fact out = result.getOutFact(node);
+            for (Node succ : cfg.getSuccsOf(node)) {
+                flowInto(result.getInFact(succ), out, widen);
+            }
+            return analysis.transferNode(node, result.getInFact(node), out);
+        }
+    }
+
+    private void flowInto(Fact fact, Fact target, boolean widen) {
+        if (widen) {
+            analysis.widenInto(fact, target);
+        } else {
+            analysis.meetInto(fact, target);
+        }
+    }
+
+    /**
+     * A component of WTO, i.e., a single node (whose body is null),
+     * or a head with the components of the loop it heads.
+     */
+    private record Component<N>(N head, @Nullable List<Component<N>> body) {
+    }
+
+    /**
+     * Builds the WTO of a CFG by recursively decomposing it into strongly
+     * connected components: the head of a component is its node that comes
+     * first in reverse post-order, and the body of the component is
+     * the decomposition of the component without the head.
+     */
+    private class WTOBuilder {
+
+        private final CFG<Node> cfg;
+
+        private final boolean forward;
+
+        private final Map<Node, Integer> rpoIndexes;
+
+        private final List<Node> rpo;
+
+        private WTOBuilder(CFG<Node> cfg, boolean forward) {
+            this.cfg = cfg;
+            this.forward = forward;
+            rpo = PriorityWorkListSolver.reversePostOrder(
+                    cfg, forward ? cfg.getEntry() : cfg.getExit(), forward);
+            rpoIndexes = Maps.newMap(rpo.size());
+            for (int i = 0; i < rpo.size(); ++i) {
+                rpoIndexes.put(rpo.get(i), i);
+            }
+        }
+
+        private List<Component<Node>> build() {
+            return decompose(rpo, toSet(rpo));
+        }
+
+        /**
+         * @param nodes the nodes to be decomposed, in reverse post-order
+         * @param scope the set of {@code nodes}
+         */
+        private List<Component<Node>> decompose(List<Node> nodes, Set<Node> scope) {
+            List<Component<Node>> components = new ArrayList<>();
+            for (List<Node> scc : computeSCCs(nodes, scope)) {
+                Node head = scc.get(0);
+                if (scc.size() == 1 && !nextsOf(head).contains(head)) {
+                    components.add(new Component<>(head, null));
+                } else {
+                    List<Node> rest = scc.subList(1, scc.size());
+                    components.add(new Component<>(head,
+                            decompose(rest, toSet(rest))));
+                }
+            }
+            return components;
+        }
+
+        /**
+         * Computes the strongly connected components of the subgraph
+         * induced by {@code scope} with (iterative) Tarjan's algorithm.
+         *
+         * @return the components in topological order, and the nodes
+         * of each component are in reverse post-order.
+         */
+        private List<List<Node>> computeSCCs(List<Node> nodes, Set<Node> scope) {
+            Map<Node, Integer> indexes = Maps.newMap(nodes.size());
+            Map<Node, Integer> lowLinks = Maps.newMap(nodes.size());
+            Deque<Node> stack = new ArrayDeque<>();
+            Set<Node> onStack = Sets.newSet(nodes.size());
+            Deque<Node> dfsStack = new ArrayDeque<>();
+            Deque<Iterator<Node>> iterators = new ArrayDeque<>();
+            List<List<Node>> sccs = new ArrayList<>();
+            for (Node root : nodes) {
+                if (indexes.containsKey(root)) {
+                    continue;
+                }
+                for (Node node = root; node != null; ) {
+                    // visits node
+                    indexes.put(node, indexes.size());
+                    lowLinks.put(node, indexes.get(node));
+                    stack.push(node);
+                    onStack.add(node);
+                    dfsStack.push(node);
+                    iterators.push(nextsOf(node).iterator());
+                    node = null;
+                    while (node == null && !dfsStack.isEmpty()) {
+                        Node current = dfsStack.peek();
+                        Iterator<Node> it = iterators.peek();
+                        if (it.hasNext()) {
+                            Node next = it.next();
+                            if (!scope.contains(next)) {
+                                continue;
+                            }
+                            if (!indexes.containsKey(next)) {
+                                node = next;
+                            } else if (onStack.contains(next)) {
+                                lowLinks.put(current, Math.min(
+                                        lowLinks.get(current), indexes.get(next)));
+                            }
+                        } else {
+                            dfsStack.pop();
+                            iterators.pop();
+                            if (lowLinks.get(current).equals(indexes.get(current))) {
+                                List<Node> scc = new ArrayList<>();
+                                Node member;
+                                do {
+                                    member = stack.pop();
+                                    onStack.remove(member);
+                                    scc.add(member);
+                                } while (member != current);
+                                scc.sort(Comparator.comparing(rpoIndexes::get));
+                                sccs.add(scc);
+                            }
+                            if (!dfsStack.isEmpty()) {
+                                Node parent = dfsStack.peek();
+                                lowLinks.put(parent, Math.min(
+                                        lowLinks.get(parent), lowLinks.get(current)));
+                            }
+                        }
+                    }
+                }
+            }
+            // Tarjan's algorithm finds the components in reverse topological order
+            Collections.reverse(sccs);
+            return sccs;
+        }
+
+        private Set<Node> toSet(List<Node> nodes) {
+            Set<Node> set = Sets.newSet(nodes.size());
+            set.addAll(nodes);
+            return set;
+        }
+
+        private Set<Node> nextsOf(Node node) {
+            return forward ? cfg.getSuccsOf(node) : cfg.getPredsOf(node);
+        }
+    }
+}
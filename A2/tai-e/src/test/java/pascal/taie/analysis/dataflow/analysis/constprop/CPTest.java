@@ -28,8 +28,16 @@ import pascal.taie.analysis.Tests;
 public class CPTest {
 
     void testCP(String inputClass) {
+        testCP(inputClass, "worklist");
+    }
+
+    /**
+     * All kinds of solvers reach the same fixed point,
+     * thus they share the expected results.
+     */
+    void testCP(String inputClass, String solver) {
         Tests.test(inputClass, "src/test/resources/dataflow/constprop/",
-                ConstantPropagation.ID, "edge-refine:false");
+                ConstantPropagation.ID, "edge-refine:false;solver:" + solver);
     }
 
     @Test
@@ -66,4 +74,24 @@ public class CPTest {
     public void testInterprocedural() {
         testCP("Interprocedural");
     }
+
+    @Test
+    public void testPrioritySolverBranchConstant() {
+        testCP("BranchConstant", "priority");
+    }
+
+    @Test
+    public void testPrioritySolverInterprocedural() {
+        testCP("Interprocedural", "priority");
+    }
+
+    @Test
+    public void testWTOSolverBranchConstant() {
+        testCP("BranchConstant", "wto");
+    }
+
+    @Test
+    public void testWTOSolverInterprocedural() {
+        testCP("Interprocedural", "wto");
+    }
 }
@@ -31,6 +31,8 @@ import pascal.taie.analysis.graph.cfg.Edge;
 import pascal.taie.config.AnalysisConfig;
 import pascal.taie.ir.IR;
 
+import java.util.Collection;
+
 public abstract class AbstractDataflowAnalysis<Node, Fact>
         extends MethodAnalysis
         implements DataflowAnalysis<Node, Fact> {
@@ -39,7 +41,7 @@ public abstract class AbstractDataflowAnalysis<Node, Fact>
 
     protected AbstractDataflowAnalysis(AnalysisConfig config) {
         super(config);
-        solver = Solver.makeSolver(this);
+        solver = Solver.makeSolver(this, getOptions().getString("solver"));
     }
 
     @Override
@@ -48,6 +50,18 @@ public abstract class AbstractDataflowAnalysis<Node, Fact>
         return solver.solve(cfg);
     }
 
+    /**
+     * Re-analyzes given IR after some of its statements and control-flow
+     * edges have been changed, reusing the unaffected facts of previous
+     * result. See {@link Solver#resolve} for details.
+     */
+    public DataflowResult<Node, Fact> reanalyze(
+            IR ir, DataflowResult<Node, Fact> previous,
+            Collection<Node> changedNodes, Collection<Edge<Node>> changedEdges) {
+        CFG<Node> cfg = ir.getResult(CFGBuilder.ID);
+        return solver.resolve(cfg, previous, changedNodes, changedEdges);
+    }
+
     /**
      * By default, a data-flow analysis does not have edge transfer, i.e.,
      * does not need to perform transfer for any edges.
@@ -49,12 +49,33 @@ public interface DataflowAnalysis<Node, Fact> {
      */
     Fact newInitialFact();
 
+    /**
+     * @return new initial fact for non-boundary nodes of given CFG.
+     * By default, this is the same as {@link #newInitialFact()};
+     * analyses whose facts depend on the method being analyzed
+     * (e.g., on its variables) should override this method.
+     */
+    default Fact newInitialFact(CFG<Node> cfg) {
+        return newInitialFact();
+    }
+
     /**
      * Meets a fact into another (target) fact.
      * This function will be used to handle control-flow confluences.
      */
     void meetInto(Fact fact, Fact target);
 
+    /**
+     * Widens a fact into another (target) fact.
+     * This function will be used at the heads of loops by the solvers that
+     * are aware of loops, after a loop has been iterated several times,
+     * so that analyses whose lattices have infinite height converge.
+     * By default, it is the same as {@link #meetInto(Object, Object)}.
+     */
+    default void widenInto(Fact fact, Fact target) {
+        meetInto(fact, target);
+    }
+
     /**
      * Node Transfer function for the analysis.
      * The function transfers data-flow from in (out) fact to out (in) fact
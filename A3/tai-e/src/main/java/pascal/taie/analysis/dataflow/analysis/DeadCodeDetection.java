@@ -24,10 +24,10 @@ package pascal.taie.analysis.dataflow.analysis;
 
 import pascal.taie.analysis.MethodAnalysis;
 import pascal.taie.analysis.dataflow.analysis.constprop.CPFact;
+import pascal.taie.analysis.dataflow.analysis.constprop.ConditionalCPResult;
 import pascal.taie.analysis.dataflow.analysis.constprop.ConstantPropagation;
-import pascal.taie.analysis.dataflow.analysis.constprop.Value;
 import pascal.taie.analysis.dataflow.fact.DataflowResult;
-import pascal.taie.analysis.dataflow.fact.SetFact;
+import pascal.taie.analysis.dataflow.fact.IndexedBitSetFact;
 import pascal.taie.analysis.graph.cfg.CFG;
 import pascal.taie.analysis.graph.cfg.CFGBuilder;
 import pascal.taie.analysis.graph.cfg.Edge;
@@ -35,11 +35,13 @@ import pascal.taie.config.AnalysisConfig;
 import pascal.taie.ir.IR;
 import pascal.taie.ir.exp.*;
 import pascal.taie.ir.stmt.AssignStmt;
-import pascal.taie.ir.stmt.If;
 import pascal.taie.ir.stmt.Stmt;
-import pascal.taie.ir.stmt.SwitchStmt;
 
-import java.util.*;
+import java.util.ArrayDeque;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.Set;
 
 public class DeadCodeDetection extends MethodAnalysis {
 
@@ -57,107 +59,60 @@ public class DeadCodeDetection extends MethodAnalysis {
         DataflowResult<Stmt, CPFact> constants =
                 ir.getResult(ConstantPropagation.ID);
         // obtain result of live variable analysis
-        DataflowResult<Stmt, SetFact<Var>> liveVars =
+        DataflowResult<Stmt, IndexedBitSetFact<Var>> liveVars =
                 ir.getResult(LiveVariableAnalysis.ID);
-        // keep statements (dead code) sorted in the resulting set
-        Set<Stmt> deadCode = new TreeSet<>(Comparator.comparing(Stmt::getIndex));
-        // TODO - finish me
-        // Your task is to recognize dead code in ir and add it to deadCode
-
-        // unreachable code
-        for (Stmt stmt : cfg) {
-            deadCode.add(stmt);
-        }
-        ArrayList<Stmt> reach = new ArrayList<>();
-        reach.add(cfg.getEntry());
-        int reachSize = 0;
-        while (reachSize < reach.size()) {
-            Stmt stmt = reach.get(reachSize);
-            // System.out.println("stmt: " + stmt.toString());
-            deadCode.remove(stmt);
-            reachSize++;
-            // add reachable
-            if (stmt instanceof If ifStmt) {
-                ConditionExp cexp = ifStmt.getCondition();
-                Value v1 = constants.getInFact(ifStmt).get(cexp.getOperand1());
-                Value v2 = constants.getInFact(ifStmt).get(cexp.getOperand2());
-                if (v1.isConstant() && v2.isConstant()) {
-                    boolean cond = getConditionResult(v1,v2, cexp.getOperator());
-                    for (Edge<Stmt> e : cfg.getOutEdgesOf(stmt)) {
-                        Stmt succ = e.getTarget();
-                        if (!reach.contains(succ)) {
-                            if (cond && e.getKind() == Edge.Kind.IF_TRUE) {
-                                reach.add(succ);
-                            }
-                            else if (!cond && e.getKind() == Edge.Kind.IF_FALSE) {
-                                reach.add(succ);
-                            }
-                        }
-                    }
-                }
-                else {
-                    addAllSucc(cfg, stmt, reach);
-                }
-            }
-            else if (stmt instanceof SwitchStmt switchStmt) {
-                Value condition = constants.getInFact(switchStmt).get(switchStmt.getVar());
-                if (condition.isConstant()) {
-                    boolean reach_default = true;
-                    for (Edge<Stmt> e : cfg.getOutEdgesOf(stmt)) {
-                        Stmt succ = e.getTarget();
-                        if (e.getKind() == Edge.Kind.SWITCH_CASE) {
-                            if (e.getCaseValue() == condition.getConstant()) {
-                                reach_default = false;
-                                if (!reach.contains(succ)) {
-                                    reach.add(succ);
-                                }
-                            }
-                        }
-                        else {
-                            if (reach_default) {
-                                if (!reach.contains(succ)) {
-                                    reach.add(succ);
-                                }
-                            }
-                        }
-                    }
-                    if (reach_default) {
-                        reach.add(switchStmt.getDefaultTarget());
-                    }
-                }
-                else {
-                    addAllSucc(cfg, stmt, reach);
-                }
-            }
-            else {
-                addAllSucc(cfg, stmt, reach);
+        // find the statements reachable via feasible control-flow edges,
+        // which have been found by conditional constant propagation
+        BitSet reachable = constants instanceof ConditionalCPResult result ?
+                result.getReachableStmts() : findReachable(cfg, constants);
+        // statements are visited in index order, which keeps
+        // statements (dead code) sorted in the resulting set
+        Set<Stmt> deadCode = new LinkedHashSet<>();
+        for (Stmt stmt : ir) {
+            if (!reachable.get(stmt.getIndex()) ||
+                    isDeadAssignment(stmt, liveVars)) {
+                deadCode.add(stmt);
             }
         }
+        return deadCode;
+    }
 
-        // dead assignment
-        for (Stmt stmt : reach) {
-            // if (cfg.isExit(stmt) || cfg.isEntry(stmt)) continue;
-            boolean noSideEffect = true;
-            if (stmt instanceof AssignStmt<?,?> assignStmt) {
-                for (RValue rValue : assignStmt.getUses()) {
-                    noSideEffect &= hasNoSideEffect(rValue);
-                }
-                if (noSideEffect) {
-                    if (assignStmt.getDef().isPresent()) {
-                        LValue def = assignStmt.getDef().get();
-                        if (def instanceof Var var) {
-                            if (!liveVars.getOutFact(assignStmt).contains(var)) {
-                                deadCode.add(stmt);
-                            }
-                        }
-                    }
+    /**
+     * @return the statements which are reachable from the entry of
+     * given CFG, as a bit set over {@link Stmt#getIndex()}.
+     * The entry and exit of the CFG are excluded.
+     */
+    private static BitSet findReachable(
+            CFG<Stmt> cfg, DataflowResult<Stmt, CPFact> constants) {
+        BitSet reachable = new BitSet(cfg.getIR().getStmts().size());
+        Deque<Stmt> workList = new ArrayDeque<>();
+        workList.push(cfg.getEntry());
+        while (!workList.isEmpty()) {
+            Stmt stmt = workList.pop();
+            for (Edge<Stmt> edge : cfg.getOutEdgesOf(stmt)) {
+                Stmt succ = edge.getTarget();
+                if (!cfg.isExit(succ) && !reachable.get(succ.getIndex())
+                        && ConstantPropagation.isFeasible(
+                                edge, constants.getInFact(stmt))) {
+                    reachable.set(succ.getIndex());
+                    workList.push(succ);
                 }
             }
         }
+        return reachable;
+    }
 
-        deadCode.remove(cfg.getEntry());
-        deadCode.remove(cfg.getExit());
-        return deadCode;
+    /**
+     * @return true if given statement is an assignment without side effect
+     * whose left-hand side variable is not live after it, otherwise false.
+     */
+    private static boolean isDeadAssignment(
+            Stmt stmt, DataflowResult<Stmt, IndexedBitSetFact<Var>> liveVars) {
+        return stmt instanceof AssignStmt<?, ?> assign
+                && assign.getLValue() instanceof Var var
+                && !liveVars.getOutFact(assign).contains(var)
+                && assign.getUses().stream()
+                .allMatch(DeadCodeDetection::hasNoSideEffect);
     }
 
     /**
@@ -182,26 +137,4 @@ public class DeadCodeDetection extends MethodAnalysis {
         }
         return true;
     }
-
-    private void addAllSucc(CFG<Stmt> cfg, Stmt stmt, ArrayList<Stmt> reach) {
-        for (Edge<Stmt> e : cfg.getOutEdgesOf(stmt)) {
-            Stmt succ = e.getTarget();
-            if (!reach.contains(succ)) {
-                reach.add(succ);
-            }
-        }
-    }
-
-    private boolean getConditionResult (Value v1, Value v2, ConditionExp.Op op) {
-        boolean result = false;
-        switch (op) {
-            case NE -> result = (v1.getConstant() != v2.getConstant());
-            case LT -> result = (v1.getConstant() < v2.getConstant());
-            case LE -> result = (v1.getConstant() <= v2.getConstant());
-            case GT -> result = (v1.getConstant() > v2.getConstant());
-            case GE -> result = (v1.getConstant() >= v2.getConstant());
-            case EQ -> result = (v1.getConstant() == v2.getConstant());
-        }
-        return result;
-    }
 }
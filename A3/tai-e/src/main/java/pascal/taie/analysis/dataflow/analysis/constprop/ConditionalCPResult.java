@@ -0,0 +1,60 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.analysis.constprop;
+
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.ir.stmt.Stmt;
+
+import java.util.BitSet;
+
+/**
+ * Result of conditional constant propagation. Besides the data-flow facts,
+ * it records the statements that are reachable via executable edges;
+ * the facts of unreachable statements are empty (i.e., all UNDEF).
+ */
+public class ConditionalCPResult extends DataflowResult<Stmt, CPFact> {
+
+    /**
+     * Reachable statements, indexed by {@link Stmt#getIndex()}.
+     */
+    private final BitSet reachable = new BitSet();
+
+    void setReachable(Stmt stmt) {
+        reachable.set(stmt.getIndex());
+    }
+
+    /**
+     * @return true if given statement is reachable, otherwise false.
+     */
+    public boolean isReachable(Stmt stmt) {
+        return reachable.get(stmt.getIndex());
+    }
+
+    /**
+     * @return the reachable statements (excluding the entry and exit of
+     * the CFG) as a bit set over {@link Stmt#getIndex()}.
+     */
+    public BitSet getReachableStmts() {
+        return (BitSet) reachable.clone();
+    }
+}
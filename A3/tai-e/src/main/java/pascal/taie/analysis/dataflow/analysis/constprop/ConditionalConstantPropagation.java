@@ -0,0 +1,131 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.analysis.constprop;
+
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.analysis.graph.cfg.Edge;
+import pascal.taie.ir.exp.ConditionExp;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.If;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.ir.stmt.SwitchStmt;
+import pascal.taie.util.collection.SetQueue;
+import pascal.taie.util.collection.Sets;
+
+import java.util.Queue;
+import java.util.Set;
+
+/**
+ * Conditional constant propagation (Wegman and Zadeck), which propagates
+ * constants only along the control-flow edges proven executable, and
+ * finds the reachable statements at the same time.
+ * <p>
+ * An out edge of an if (switch) statement becomes executable only if it can
+ * be taken with the value of the condition (variable), so that facts of
+ * infeasible branches never flow into the merge points; the other edges
+ * become executable once their source is reached. Unreachable statements
+ * are never processed.
+ */
+class ConditionalConstantPropagation {
+
+    private final ConstantPropagation cp;
+
+    private final CFG<Stmt> cfg;
+
+    private final Set<Edge<Stmt>> executableEdges = Sets.newSet();
+
+    private final Queue<Stmt> workList = new SetQueue<>();
+
+    private ConditionalCPResult result;
+
+    ConditionalConstantPropagation(ConstantPropagation cp, CFG<Stmt> cfg) {
+        this.cp = cp;
+        this.cfg = cfg;
+    }
+
+    ConditionalCPResult solve() {
+        initialize();
+        while (!workList.isEmpty()) {
+            Stmt node = workList.poll();
+            CPFact in = result.getInFact(node);
+            for (Edge<Stmt> edge : cfg.getInEdgesOf(node)) {
+                if (executableEdges.contains(edge)) {
+                    cp.meetInto(result.getOutFact(edge.getSource()), in);
+                }
+            }
+            boolean changed = cp.transferNode(node, in, result.getOutFact(node));
+            if (!cfg.isExit(node)) {
+                result.setReachable(node);
+            }
+            if (!isUndefBranch(node, in)) {
+                for (Edge<Stmt> edge : cfg.getOutEdgesOf(node)) {
+                    if (executableEdges.contains(edge)) {
+                        if (changed) {
+                            workList.add(edge.getTarget());
+                        }
+                    } else if (ConstantPropagation.isFeasible(edge, in)) {
+                        executableEdges.add(edge);
+                        workList.add(edge.getTarget());
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    private void initialize() {
+        result = new ConditionalCPResult();
+        Stmt entry = cfg.getEntry();
+        result.setOutFact(entry, cp.newBoundaryFact(cfg));
+        for (Stmt node : cfg) {
+            if (!cfg.isEntry(node)) {
+                result.setInFact(node, cp.newInitialFact());
+                result.setOutFact(node, cp.newInitialFact());
+            }
+        }
+        for (Edge<Stmt> edge : cfg.getOutEdgesOf(entry)) {
+            executableEdges.add(edge);
+            workList.add(edge.getTarget());
+        }
+    }
+
+    /**
+     * @return true if given statement is an if (switch) statement whose
+     * condition (variable) is still UNDEF, i.e., none of its out edges
+     * can be proven executable yet, otherwise false.
+     * The conditions on the operands that cannot hold integers (e.g.,
+     * null checks) are never tracked, thus they are never undecided.
+     */
+    private static boolean isUndefBranch(Stmt stmt, CPFact in) {
+        if (stmt instanceof If ifStmt) {
+            ConditionExp cond = ifStmt.getCondition();
+            return ConstantPropagation.canHoldInt(cond.getOperand1())
+                    && ConstantPropagation.canHoldInt(cond.getOperand2())
+                    && ConstantPropagation.evaluate(cond, in).isUndef();
+        } else if (stmt instanceof SwitchStmt switchStmt) {
+            Var var = switchStmt.getVar();
+            return ConstantPropagation.canHoldInt(var) && in.get(var).isUndef();
+        }
+        return false;
+    }
+}
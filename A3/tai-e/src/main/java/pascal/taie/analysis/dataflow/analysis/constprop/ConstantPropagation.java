@@ -23,12 +23,18 @@
 package pascal.taie.analysis.dataflow.analysis.constprop;
 
 import pascal.taie.analysis.dataflow.analysis.AbstractDataflowAnalysis;
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
 import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.analysis.graph.cfg.CFGBuilder;
+import pascal.taie.analysis.graph.cfg.Edge;
 import pascal.taie.config.AnalysisConfig;
+import pascal.taie.config.ConfigException;
 import pascal.taie.ir.IR;
 import pascal.taie.ir.exp.*;
 import pascal.taie.ir.stmt.DefinitionStmt;
+import pascal.taie.ir.stmt.If;
 import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.ir.stmt.SwitchStmt;
 import pascal.taie.language.type.PrimitiveType;
 import pascal.taie.language.type.Type;
 import pascal.taie.util.AnalysisException;
@@ -42,6 +48,28 @@ public class ConstantPropagation extends
         super(config);
     }
 
+    /**
+     * If option "sparse" is true, propagates constants along def-use chains
+     * (see {@link SparseConstantPropagation}) instead of through the CFG.
+     * If option "conditional" is true, propagates constants only along
+     * executable edges (see {@link ConditionalConstantPropagation}).
+     */
+    @Override
+    public DataflowResult<Stmt, CPFact> analyze(IR ir) {
+        boolean sparse = getOptions().getBooleanOrDefault("sparse", false);
+        boolean conditional = getOptions().getBooleanOrDefault("conditional", false);
+        if (sparse && conditional) {
+            throw new ConfigException("Options sparse and conditional of "
+                    + ID + " cannot be enabled at the same time");
+        }
+        if (sparse || conditional) {
+            CFG<Stmt> cfg = ir.getResult(CFGBuilder.ID);
+            return sparse ? new SparseConstantPropagation(this, cfg).solve()
+                    : new ConditionalConstantPropagation(this, cfg).solve();
+        }
+        return super.analyze(ir);
+    }
+
     @Override
     public boolean isForward() {
         return true;
@@ -68,12 +96,7 @@ public class ConstantPropagation extends
     @Override
     public void meetInto(CPFact fact, CPFact target) {
         // TODO - finish me
-        for (Var key : target.keySet()) {
-            target.update(key, meetValue(target.get(key), fact.get(key)));
-        }
-        for (Var key : fact.keySet()) {
-            target.update(key, meetValue(target.get(key), fact.get(key)));
-        }
+        target.meet(fact);
     }
 
     /**
@@ -105,10 +128,7 @@ public class ConstantPropagation extends
     @Override
     public boolean transferNode(Stmt stmt, CPFact in, CPFact out) {
         // TODO - finish me
-        boolean change = false;
-        for (Var key : in.keySet()) {
-            change |= out.update(key, in.get(key));
-        }
+        boolean change = out.copyFrom(in);
         if (stmt instanceof DefinitionStmt<?,?>) {
             Value expValue = evaluate(((DefinitionStmt<?,?>) stmt).getRValue(), in);
             if (stmt.getDef().isPresent()) {
@@ -165,6 +185,38 @@ public class ConstantPropagation extends
         }
         return result;
     }
+    /**
+     * @param edge a control-flow edge
+     * @param in   IN fact of the source of the edge
+     * @return false if the source of given edge is an if (switch) statement
+     * whose condition (variable) is constant in {@code in}, and the edge
+     * cannot be taken with that constant, otherwise true.
+     */
+    public static boolean isFeasible(Edge<Stmt> edge, CPFact in) {
+        Stmt source = edge.getSource();
+        if (source instanceof If ifStmt) {
+            Value cond = evaluate(ifStmt.getCondition(), in);
+            if (cond.isConstant()) {
+                return switch (edge.getKind()) {
+                    case IF_TRUE -> cond.getConstant() == 1;
+                    case IF_FALSE -> cond.getConstant() == 0;
+                    default -> false;
+                };
+            }
+        } else if (source instanceof SwitchStmt switchStmt) {
+            Value var = in.get(switchStmt.getVar());
+            if (var.isConstant()) {
+                int value = var.getConstant();
+                return switch (edge.getKind()) {
+                    case SWITCH_CASE -> edge.getCaseValue() == value;
+                    case SWITCH_DEFAULT -> !switchStmt.getCaseValues().contains(value);
+                    default -> false;
+                };
+            }
+        }
+        return true;
+    }
+
     private static Value evaluateVar(Var var, CPFact in) {
         int value;
         Value result;
@@ -187,6 +239,10 @@ public class ConstantPropagation extends
     }
 
     private static Value evaluateBinaryExp(BinaryExp binaryExp, CPFact in) {
+        if (binaryExp instanceof ComparisonExp) {
+            // compares long, float or double values, which are not tracked
+            return Value.getNAC();
+        }
         Value result = Value.getNAC(), op1 = in.get(binaryExp.getOperand1()), op2 = in.get(binaryExp.getOperand2());
         // div zero
         if (binaryExp instanceof ArithmeticExp &&
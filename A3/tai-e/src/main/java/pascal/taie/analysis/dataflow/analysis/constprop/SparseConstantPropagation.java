@@ -0,0 +1,338 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.analysis.constprop;
+
+import pascal.taie.analysis.dataflow.analysis.DataflowAnalysis;
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.dataflow.fact.IndexedBitSetFact;
+import pascal.taie.analysis.dataflow.solver.Solver;
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.analysis.graph.cfg.Edge;
+import pascal.taie.ir.exp.Exp;
+import pascal.taie.ir.exp.RValue;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.DefinitionStmt;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.util.Indexable;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.MultiMap;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sparse constant propagation which propagates lattice values along
+ * def-use chains instead of through every statement of the CFG.
+ * <p>
+ * The def-use chains are derived from reaching definitions (computed on
+ * bit vectors), then each definition is evaluated once and re-evaluated
+ * only when the value of one of its operands changes.
+ * The resulting {@link DataflowResult} materializes the {@link CPFact}s
+ * of a statement lazily, on first query, and agrees with the result of
+ * the dense {@link ConstantPropagation}.
+ */
+class SparseConstantPropagation {
+
+    private final ConstantPropagation cp;
+
+    private final CFG<Stmt> cfg;
+
+    /**
+     * All definitions of the variables that can hold integers,
+     * indexed by {@link Definition#getIndex()}.
+     */
+    private final List<Definition> defs = new ArrayList<>();
+
+    /**
+     * Definitions of each variable, used to kill reaching definitions.
+     */
+    private final Map<Var, IndexedBitSetFact<Definition>> defsOfVar = Maps.newMap();
+
+    /**
+     * Definition made by each statement (except the entry).
+     */
+    private final Map<Stmt, Definition> defOfStmt = Maps.newMap();
+
+    /**
+     * Lattice value assigned by each definition.
+     */
+    private Value[] values;
+
+    SparseConstantPropagation(ConstantPropagation cp, CFG<Stmt> cfg) {
+        this.cp = cp;
+        this.cfg = cfg;
+    }
+
+    DataflowResult<Stmt, CPFact> solve() {
+        collectDefinitions();
+        DataflowResult<Stmt, IndexedBitSetFact<Definition>> reachingDefs =
+                Solver.makeSolver(new ReachingDefinitions(), "priority").solve(cfg);
+        propagate(buildDefUseChains(reachingDefs));
+        return new Result(reachingDefs);
+    }
+
+    private void collectDefinitions() {
+        // parameters are defined (as NAC) at the entry of the method
+        for (Var param : cfg.getIR().getParams()) {
+            if (ConstantPropagation.canHoldInt(param)) {
+                addDefinition(cfg.getEntry(), param, null);
+            }
+        }
+        for (Stmt stmt : cfg) {
+            if (stmt instanceof DefinitionStmt<?, ?> defStmt
+                    && defStmt.getLValue() instanceof Var var
+                    && ConstantPropagation.canHoldInt(var)) {
+                defOfStmt.put(stmt, addDefinition(stmt, var, defStmt.getRValue()));
+            }
+        }
+        values = new Value[defs.size()];
+        for (Definition def : defs) {
+            values[def.getIndex()] = def.rValue == null ?
+                    Value.getNAC() : Value.getUndef();
+        }
+    }
+
+    private Definition addDefinition(Stmt stmt, Var var, RValue rValue) {
+        Definition def = new Definition(defs.size(), stmt, var, rValue);
+        defs.add(def);
+        defsOfVar.computeIfAbsent(var, v -> newDefinitionSet()).add(def);
+        return def;
+    }
+
+    private IndexedBitSetFact<Definition> newDefinitionSet() {
+        return new IndexedBitSetFact<>(defs::get);
+    }
+
+    /**
+     * Connects each definition to the definitions whose right-hand side
+     * uses it, and records the reaching definitions of the operands of
+     * each definition.
+     */
+    private MultiMap<Definition, Definition> buildDefUseChains(
+            DataflowResult<Stmt, IndexedBitSetFact<Definition>> reachingDefs) {
+        MultiMap<Definition, Definition> defUses = Maps.newMultiMap();
+        for (Definition def : defs) {
+            if (def.rValue == null) {
+                continue;
+            }
+            IndexedBitSetFact<Definition> in = reachingDefs.getInFact(def.stmt);
+            for (Var use : operandsOf(def.rValue)) {
+                IndexedBitSetFact<Definition> useDefs = defsOfVar.get(use);
+                if (useDefs == null) {
+                    continue;
+                }
+                IndexedBitSetFact<Definition> reaching = useDefs.copy();
+                reaching.intersect(in);
+                reaching.stream().forEach(d -> {
+                    def.operandDefs.add(d);
+                    defUses.put(d, def);
+                });
+            }
+        }
+        return defUses;
+    }
+
+    private static List<Var> operandsOf(Exp exp) {
+        List<Var> operands = new ArrayList<>();
+        if (exp instanceof Var var) {
+            operands.add(var);
+        }
+        exp.getUses().forEach(use -> {
+            if (use instanceof Var var) {
+                operands.add(var);
+            }
+        });
+        return operands;
+    }
+
+    /**
+     * Evaluates all definitions, and re-evaluates a definition only
+     * when the value of some definition it uses has changed.
+     */
+    private void propagate(MultiMap<Definition, Definition> defUses) {
+        BitSet workList = new BitSet(defs.size());
+        for (Definition def : defs) {
+            if (def.rValue != null) {
+                workList.set(def.getIndex());
+            }
+        }
+        for (int i = workList.nextSetBit(0); i >= 0; i = workList.nextSetBit(0)) {
+            workList.clear(i);
+            Definition def = defs.get(i);
+            CPFact operands = new CPFact();
+            for (Definition d : def.operandDefs) {
+                operands.update(d.var,
+                        cp.meetValue(operands.get(d.var), values[d.getIndex()]));
+            }
+            Value value = ConstantPropagation.evaluate(def.rValue, operands);
+            if (!value.equals(values[i])) {
+                values[i] = value;
+                defUses.get(def).forEach(use -> workList.set(use.getIndex()));
+            }
+        }
+    }
+
+    /**
+     * @return the constant-propagation fact that corresponds to
+     * the given set of reaching definitions.
+     */
+    private CPFact toCPFact(IndexedBitSetFact<Definition> reachingDefs) {
+        CPFact fact = new CPFact();
+        reachingDefs.stream().forEach(d -> fact.update(d.var,
+                cp.meetValue(fact.get(d.var), values[d.getIndex()])));
+        return fact;
+    }
+
+    /**
+     * A definition of a variable, i.e., a statement which assigns
+     * {@link #rValue} to {@link #var}. The right-hand side is null
+     * for the pseudo definitions of parameters.
+     */
+    private static class Definition implements Indexable {
+
+        private final int index;
+
+        private final Stmt stmt;
+
+        private final Var var;
+
+        private final RValue rValue;
+
+        /**
+         * Definitions which reach the operands of {@link #rValue}.
+         */
+        private final List<Definition> operandDefs = new ArrayList<>();
+
+        private Definition(int index, Stmt stmt, Var var, RValue rValue) {
+            this.index = index;
+            this.stmt = stmt;
+            this.var = var;
+            this.rValue = rValue;
+        }
+
+        @Override
+        public int getIndex() {
+            return index;
+        }
+
+        @Override
+        public String toString() {
+            return var + "@" + stmt;
+        }
+    }
+
+    /**
+     * Reaching definitions of the variables that can hold integers.
+     */
+    private class ReachingDefinitions implements
+            DataflowAnalysis<Stmt, IndexedBitSetFact<Definition>> {
+
+        @Override
+        public boolean isForward() {
+            return true;
+        }
+
+        @Override
+        public IndexedBitSetFact<Definition> newBoundaryFact(CFG<Stmt> cfg) {
+            IndexedBitSetFact<Definition> fact = newDefinitionSet();
+            defs.stream()
+                    .filter(d -> d.rValue == null)
+                    .forEach(fact::add);
+            return fact;
+        }
+
+        @Override
+        public IndexedBitSetFact<Definition> newInitialFact() {
+            return newDefinitionSet();
+        }
+
+        @Override
+        public void meetInto(IndexedBitSetFact<Definition> fact,
+                             IndexedBitSetFact<Definition> target) {
+            target.union(fact);
+        }
+
+        @Override
+        public boolean transferNode(Stmt stmt, IndexedBitSetFact<Definition> in,
+                                    IndexedBitSetFact<Definition> out) {
+            // out only grows, as in only grows during the solving
+            Definition def = defOfStmt.get(stmt);
+            if (def != null) {
+                return out.unionExcept(in, defsOfVar.get(def.var)) | out.add(def);
+            }
+            return out.union(in);
+        }
+
+        @Override
+        public boolean needTransferEdge(Edge<Stmt> edge) {
+            return false;
+        }
+
+        @Override
+        public IndexedBitSetFact<Definition> transferEdge(
+                Edge<Stmt> edge, IndexedBitSetFact<Definition> nodeFact) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    /**
+     * Data-flow result whose facts are built from the reaching
+     * definitions on demand.
+     */
+    private class Result extends DataflowResult<Stmt, CPFact> {
+
+        private final DataflowResult<Stmt, IndexedBitSetFact<Definition>> reachingDefs;
+
+        private Result(DataflowResult<Stmt, IndexedBitSetFact<Definition>> reachingDefs) {
+            this.reachingDefs = reachingDefs;
+        }
+
+        @Override
+        public CPFact getInFact(Stmt stmt) {
+            CPFact fact = super.getInFact(stmt);
+            if (fact == null) {
+                IndexedBitSetFact<Definition> defs = reachingDefs.getInFact(stmt);
+                if (defs != null) {
+                    fact = toCPFact(defs);
+                    setInFact(stmt, fact);
+                }
+            }
+            return fact;
+        }
+
+        @Override
+        public CPFact getOutFact(Stmt stmt) {
+            CPFact fact = super.getOutFact(stmt);
+            if (fact == null) {
+                IndexedBitSetFact<Definition> defs = reachingDefs.getOutFact(stmt);
+                if (defs != null) {
+                    fact = toCPFact(defs);
+                    setOutFact(stmt, fact);
+                }
+            }
+            return fact;
+        }
+    }
+}
@@ -0,0 +1,346 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.fact;
+
+import pascal.taie.util.Indexable;
+import pascal.taie.util.collection.Streams;
+
+import java.util.Arrays;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Represents set-like data-flow facts as dense bit vectors.
+ * Each element is represented by the bit at its index
+ * (given by {@link Indexable#getIndex()}), and set operations
+ * are performed word by word in place.
+ *
+ * @param <E> type of elements
+ */
+public class IndexedBitSetFact<E extends Indexable> {
+
+    private static final long[] EMPTY_WORDS = new long[0];
+
+    /**
+     * Maps indexes back to elements. It is null if this fact has not
+     * been bound to a universe yet, in which case this fact is empty.
+     */
+    private IntFunction<E> universe;
+
+    /**
+     * Gives the universe of an element, used to bind an unbound fact.
+     */
+    private final Function<? super E, IntFunction<E>> universeOf;
+
+    private long[] words;
+
+    /**
+     * @param universe function which maps indexes back to the elements,
+     *                 e.g., {@code ir::getVar} for variables of an IR.
+     */
+    public IndexedBitSetFact(IntFunction<E> universe) {
+        this(universe, null, EMPTY_WORDS);
+    }
+
+    private IndexedBitSetFact(IntFunction<E> universe,
+                              Function<? super E, IntFunction<E>> universeOf,
+                              long[] words) {
+        this.universe = universe;
+        this.universeOf = universeOf;
+        this.words = words;
+    }
+
+    /**
+     * Creates an empty fact which is not bound to a universe yet.
+     * The fact is bound to the universe of the first element added to it
+     * (given by {@code universeOf}), or to the universe of the first
+     * non-empty fact unioned (set) into it.
+     *
+     * @param universeOf function which gives the universe of an element,
+     *                   e.g., {@code v -> v.getMethod().getIR()::getVar}
+     *                   for variables.
+     */
+    public static <E extends Indexable> IndexedBitSetFact<E> unbound(
+            Function<? super E, IntFunction<E>> universeOf) {
+        return new IndexedBitSetFact<>(null, universeOf, EMPTY_WORDS);
+    }
+
+    /**
+     * @return true if this set contains the specified element, otherwise false.
+     */
+    public boolean contains(E e) {
+        int index = e.getIndex();
+        int i = index >>> 6;
+        return i < words.length && (words[i] & (1L << index)) != 0;
+    }
+
+    /**
+     * Adds an element to this fact.
+     *
+     * @return true if this fact changed as a result of the call, otherwise false.
+     */
+    public boolean add(E e) {
+        if (universe == null) {
+            universe = universeOf.apply(e);
+        }
+        int index = e.getIndex();
+        int i = index >>> 6;
+        ensureCapacity(i + 1);
+        long old = words[i];
+        words[i] = old | (1L << index);
+        return words[i] != old;
+    }
+
+    /**
+     * Removes an element from this fact.
+     *
+     * @return true if an element was removed as a result of the call, otherwise false.
+     */
+    public boolean remove(E e) {
+        int index = e.getIndex();
+        int i = index >>> 6;
+        if (i >= words.length) {
+            return false;
+        }
+        long old = words[i];
+        words[i] = old & ~(1L << index);
+        return words[i] != old;
+    }
+
+    /**
+     * Unions other fact into this fact.
+     *
+     * @return true if this fact changed as a result of the call, otherwise false.
+     */
+    public boolean union(IndexedBitSetFact<E> other) {
+        bindTo(other);
+        ensureCapacity(other.words.length);
+        long changed = 0;
+        for (int i = 0; i < other.words.length; ++i) {
+            long old = words[i];
+            words[i] = old | other.words[i];
+            changed |= words[i] ^ old;
+        }
+        return changed != 0;
+    }
+
+    /**
+     * Unions other fact except the given element into this fact,
+     * i.e., this = this ∪ (other - {excluded}).
+     *
+     * @return true if this fact changed as a result of the call, otherwise false.
+     */
+    public boolean unionExcept(IndexedBitSetFact<E> other, E excluded) {
+        bindTo(other);
+        ensureCapacity(other.words.length);
+        int index = excluded.getIndex();
+        int excludedWord = index >>> 6;
+        long changed = 0;
+        for (int i = 0; i < other.words.length; ++i) {
+            long word = other.words[i];
+            if (i == excludedWord) {
+                word &= ~(1L << index);
+            }
+            long old = words[i];
+            words[i] = old | word;
+            changed |= words[i] ^ old;
+        }
+        return changed != 0;
+    }
+
+    /**
+     * Unions other fact except the elements of {@code excluded} into
+     * this fact, i.e., this = this ∪ (other - excluded).
+     *
+     * @return true if this fact changed as a result of the call, otherwise false.
+     */
+    public boolean unionExcept(IndexedBitSetFact<E> other, IndexedBitSetFact<E> excluded) {
+        bindTo(other);
+        ensureCapacity(other.words.length);
+        long changed = 0;
+        for (int i = 0; i < other.words.length; ++i) {
+            long word = other.words[i];
+            if (i < excluded.words.length) {
+                word &= ~excluded.words[i];
+            }
+            long old = words[i];
+            words[i] = old | word;
+            changed |= words[i] ^ old;
+        }
+        return changed != 0;
+    }
+
+    /**
+     * Intersects this fact with other fact.
+     *
+     * @return true if this fact changed as a result of the call, otherwise false.
+     */
+    public boolean intersect(IndexedBitSetFact<E> other) {
+        long changed = 0;
+        for (int i = 0; i < words.length; ++i) {
+            long old = words[i];
+            words[i] = i < other.words.length ? old & other.words[i] : 0;
+            changed |= words[i] ^ old;
+        }
+        return changed != 0;
+    }
+
+    /**
+     * Removes all elements of other fact from this fact.
+     *
+     * @return true if this fact changed as a result of the call, otherwise false.
+     */
+    public boolean difference(IndexedBitSetFact<E> other) {
+        int n = Math.min(words.length, other.words.length);
+        long changed = 0;
+        for (int i = 0; i < n; ++i) {
+            long old = words[i];
+            words[i] = old & ~other.words[i];
+            changed |= words[i] ^ old;
+        }
+        return changed != 0;
+    }
+
+    /**
+     * Sets the content of this fact to the same as other fact.
+     *
+     * @return true if this fact changed as a result of the call, otherwise false.
+     */
+    public boolean set(IndexedBitSetFact<E> other) {
+        bindTo(other);
+        ensureCapacity(other.words.length);
+        long changed = 0;
+        for (int i = 0; i < words.length; ++i) {
+            long old = words[i];
+            words[i] = i < other.words.length ? other.words[i] : 0;
+            changed |= words[i] ^ old;
+        }
+        return changed != 0;
+    }
+
+    /**
+     * Creates and returns a copy of this fact.
+     */
+    public IndexedBitSetFact<E> copy() {
+        return new IndexedBitSetFact<>(universe, universeOf, words.clone());
+    }
+
+    /**
+     * Clears all content in this fact.
+     */
+    public void clear() {
+        Arrays.fill(words, 0);
+    }
+
+    public boolean isEmpty() {
+        for (long word : words) {
+            if (word != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public Stream<E> stream() {
+        if (universe == null) {
+            // unbound fact is always empty
+            return Stream.empty();
+        }
+        return indexes().mapToObj(universe);
+    }
+
+    public int size() {
+        int size = 0;
+        for (long word : words) {
+            size += Long.bitCount(word);
+        }
+        return size;
+    }
+
+    /**
+     * @return indexes of the elements in this fact, in ascending order.
+     */
+    private IntStream indexes() {
+        return IntStream.range(0, words.length)
+                .flatMap(i -> {
+                    long word = words[i];
+                    IntStream.Builder builder = IntStream.builder();
+                    while (word != 0) {
+                        builder.add((i << 6) + Long.numberOfTrailingZeros(word));
+                        word &= word - 1;
+                    }
+                    return builder.build();
+                });
+    }
+
+    /**
+     * Binds this fact to the universe of other fact if this fact is unbound.
+     */
+    private void bindTo(IndexedBitSetFact<E> other) {
+        if (universe == null) {
+            universe = other.universe;
+        }
+    }
+
+    private void ensureCapacity(int nWords) {
+        if (words.length < nWords) {
+            words = Arrays.copyOf(words, nWords);
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof IndexedBitSetFact<?> that)) {
+            return false;
+        }
+        int n = Math.max(words.length, that.words.length);
+        for (int i = 0; i < n; ++i) {
+            long w1 = i < words.length ? words[i] : 0;
+            long w2 = i < that.words.length ? that.words[i] : 0;
+            if (w1 != w2) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        // ignores trailing zero words, so that equal facts have equal hash codes
+        long h = 1234;
+        for (int i = words.length; --i >= 0; ) {
+            h ^= words[i] * (i + 1);
+        }
+        return (int) ((h >> 32) ^ h);
+    }
+
+    @Override
+    public String toString() {
+        return Streams.toString(stream());
+    }
+}
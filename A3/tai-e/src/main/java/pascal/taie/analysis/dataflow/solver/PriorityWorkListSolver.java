@@ -0,0 +1,156 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.solver;
+
+import pascal.taie.analysis.dataflow.analysis.DataflowAnalysis;
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.Sets;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Work-list solver which always picks the pending node with the smallest
+ * reverse post-order index, i.e., predecessors (successors for backward
+ * analysis) are processed before the nodes they flow into.
+ * The work-list itself is a {@link BitSet} over the node indexes, so that
+ * both membership test and insertion take constant time.
+ */
+class PriorityWorkListSolver<Node, Fact> extends Solver<Node, Fact> {
+
+    PriorityWorkListSolver(DataflowAnalysis<Node, Fact> analysis) {
+        super(analysis);
+    }
+
+    @Override
+    protected void doSolveForward(CFG<Node> cfg, DataflowResult<Node, Fact> result) {
+        List<Node> nodes = reversePostOrder(cfg, cfg.getEntry(), true);
+        Map<Node, Integer> indexes = indexesOf(nodes);
+        BitSet workList = new BitSet(nodes.size());
+        for (int i = 0; i < nodes.size(); ++i) {
+            if (!cfg.isEntry(nodes.get(i))) {
+                workList.set(i);
+            }
+        }
+        for (int i = workList.nextSetBit(0); i >= 0; i = workList.nextSetBit(0)) {
+            workList.clear(i);
+            Node node = nodes.get(i);
+            Fact in = result.getInFact(node);
+            for (Node pred : cfg.getPredsOf(node)) {
+                analysis.meetInto(result.getOutFact(pred), in);
+            }
+            if (analysis.transferNode(node, in, result.getOutFact(node))) {
+                for (Node succ : cfg.getSuccsOf(node)) {
+                    workList.set(indexes.get(succ));
+                }
+            }
+        }
+    }
+
+    @Override
+    protected void doSolveBackward(CFG<Node> cfg, DataflowResult<Node, Fact> result) {
+        List<Node> nodes = reversePostOrder(cfg, cfg.getExit(), false);
+        Map<Node, Integer> indexes = indexesOf(nodes);
+        BitSet workList = new BitSet(nodes.size());
+        for (int i = 0; i < nodes.size(); ++i) {
+            if (!cfg.isExit(nodes.get(i))) {
+                workList.set(i);
+            }
+        }
+        for (int i = workList.nextSetBit(0); i >= 0; i = workList.nextSetBit(0)) {
+            workList.clear(i);
+            Node node = nodes.get(i);
+            Fact out = result.getOutFact(node);
+            for (Node succ : cfg.getSuccsOf(node)) {
+                analysis.meetInto(result.getInFact(succ), out);
+            }
+            if (analysis.transferNode(node, result.getInFact(node), out)) {
+                for (Node pred : cfg.getPredsOf(node)) {
+                    workList.set(indexes.get(pred));
+                }
+            }
+        }
+    }
+
+    /**
+     * Computes reverse post-order of the nodes in given CFG by depth-first
+     * search from {@code root}. The search follows successors if
+     * {@code forward} is true, otherwise it follows predecessors.
+     * Nodes that are unreachable from {@code root} are also included,
+     * so that the returned list covers all nodes of the CFG.
+     */
+    static <Node> List<Node> reversePostOrder(CFG<Node> cfg, Node root, boolean forward) {
+        int size = cfg.getNumberOfNodes();
+        List<Node> postOrder = new ArrayList<>(size);
+        Set<Node> visited = Sets.newSet(size);
+        Deque<Node> stack = new ArrayDeque<>();
+        Deque<Iterator<Node>> iterators = new ArrayDeque<>();
+        List<Node> roots = new ArrayList<>(size + 1);
+        roots.add(root);
+        cfg.forEach(roots::add);
+        for (Node start : roots) {
+            if (!visited.add(start)) {
+                continue;
+            }
+            stack.push(start);
+            iterators.push(nextsOf(cfg, start, forward));
+            while (!stack.isEmpty()) {
+                Iterator<Node> it = iterators.peek();
+                if (it.hasNext()) {
+                    Node next = it.next();
+                    if (visited.add(next)) {
+                        stack.push(next);
+                        iterators.push(nextsOf(cfg, next, forward));
+                    }
+                } else {
+                    postOrder.add(stack.pop());
+                    iterators.pop();
+                }
+            }
+        }
+        Collections.reverse(postOrder);
+        return postOrder;
+    }
+
+    private static <Node> Iterator<Node> nextsOf(CFG<Node> cfg, Node node, boolean forward) {
+        return forward ? cfg.getSuccsOf(node).iterator()
+                : cfg.getPredsOf(node).iterator();
+    }
+
+    private Map<Node, Integer> indexesOf(List<Node> nodes) {
+        Map<Node, Integer> indexes = Maps.newMap(nodes.size());
+        for (int i = 0; i < nodes.size(); ++i) {
+            indexes.put(nodes.get(i), i);
+        }
+        return indexes;
+    }
+}
@@ -25,6 +25,17 @@ package pascal.taie.analysis.dataflow.solver;
 import pascal.taie.analysis.dataflow.analysis.DataflowAnalysis;
 import pascal.taie.analysis.dataflow.fact.DataflowResult;
 import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.analysis.graph.cfg.Edge;
+import pascal.taie.config.ConfigException;
+import pascal.taie.util.collection.SetQueue;
+import pascal.taie.util.collection.Sets;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
 
 /**
  * Base class for data-flow analysis solver, which provides common
@@ -46,7 +57,30 @@ public abstract class Solver<Node, Fact> {
      */
     public static <Node, Fact> Solver<Node, Fact> makeSolver(
             DataflowAnalysis<Node, Fact> analysis) {
-        return new WorkListSolver<>(analysis);
+        return makeSolver(analysis, null);
+    }
+
+    /**
+     * Static factory method to create a new solver of given kind
+     * for given analysis.
+     *
+     * @param kind kind of the solver, i.e., "worklist" (default if
+     *             {@code kind} is null), "priority" which processes
+     *             nodes in reverse post-order of the CFG, or "wto" which
+     *             iterates loops following a weak topological ordering
+     *             of the CFG.
+     */
+    public static <Node, Fact> Solver<Node, Fact> makeSolver(
+            DataflowAnalysis<Node, Fact> analysis, @Nullable String kind) {
+        if (kind == null) {
+            return new WorkListSolver<>(analysis);
+        }
+        return switch (kind) {
+            case "worklist" -> new WorkListSolver<>(analysis);
+            case "priority" -> new PriorityWorkListSolver<>(analysis);
+            case "wto" -> new WTOSolver<>(analysis);
+            default -> throw new ConfigException("Unknown data-flow solver: " + kind);
+        };
     }
 
     /**
@@ -61,6 +95,129 @@ public abstract class Solver<Node, Fact> {
         return result;
     }
 
+    /**
+     * Re-solves the data-flow problem of given CFG after some of its
+     * nodes and edges have been changed, by reusing the facts of previous
+     * result which cannot be affected by the changes.
+     * <p>
+     * The affected nodes are the changed nodes, the targets (sources for
+     * backward analysis) of the changed edges, and all nodes reachable
+     * from them along the flow direction. An added edge only brings one
+     * more fact to meet, thus the facts of the nodes affected by added
+     * edges can only grow (towards the result of meet), and they are
+     * re-solved starting from their previous facts. The facts of the nodes
+     * affected by changed nodes or removed edges may shrink, thus these
+     * nodes are re-initialized. In both cases, the result is the same as
+     * the one given by {@link #solve(CFG)}. If the boundary node is
+     * affected, or previous result lacks facts of some node which is not
+     * re-initialized, this method falls back to {@link #solve(CFG)}.
+     * <p>
+     * Note that the returned result shares the facts of unaffected nodes
+     * with previous result, and previous result is left unchanged.
+     *
+     * @param cfg          control-flow graph after the changes
+     * @param previous     result of the CFG before the changes
+     * @param changedNodes nodes whose statements have been changed
+     *                     (including the added nodes)
+     * @param changedEdges edges which have been added or removed;
+     *                     the edges which are in {@code cfg} are regarded
+     *                     as added, and the others as removed
+     * @return the analysis result
+     */
+    public DataflowResult<Node, Fact> resolve(
+            CFG<Node> cfg, DataflowResult<Node, Fact> previous,
+            Collection<Node> changedNodes, Collection<Edge<Node>> changedEdges) {
+        boolean forward = analysis.isForward();
+        List<Node> shrinkRoots = new ArrayList<>(changedNodes);
+        List<Node> growRoots = new ArrayList<>();
+        changedEdges.forEach(edge -> {
+            Node node = forward ? edge.getTarget() : edge.getSource();
+            if (cfg.hasEdge(edge.getSource(), edge.getTarget())) {
+                growRoots.add(node);
+            } else {
+                shrinkRoots.add(node);
+            }
+        });
+        Set<Node> shrinking = reachableFrom(cfg, shrinkRoots);
+        Set<Node> growing = reachableFrom(cfg, growRoots);
+        Node boundary = forward ? cfg.getEntry() : cfg.getExit();
+        if (shrinking.contains(boundary) || growing.contains(boundary) ||
+                shrinking.size() == cfg.getNumberOfNodes()) {
+            return solve(cfg);
+        }
+        DataflowResult<Node, Fact> result = new DataflowResult<>();
+        for (Node node : cfg) {
+            if (shrinking.contains(node)) {
+                result.setInFact(node, analysis.newInitialFact(cfg));
+                result.setOutFact(node, analysis.newInitialFact(cfg));
+                continue;
+            }
+            Fact in = previous.getInFact(node);
+            Fact out = previous.getOutFact(node);
+            if ((forward ? out : in) == null) {
+                return solve(cfg);
+            }
+            if (growing.contains(node)) {
+                // the facts will be updated, thus copy them
+                result.setInFact(node, copyFact(cfg, in));
+                result.setOutFact(node, copyFact(cfg, out));
+            } else {
+                result.setInFact(node, in);
+                result.setOutFact(node, out);
+            }
+        }
+        Queue<Node> workList = new SetQueue<>();
+        cfg.forEach(node -> {
+            if (shrinking.contains(node) || growing.contains(node)) {
+                workList.add(node);
+            }
+        });
+        while (!workList.isEmpty()) {
+            Node node = workList.poll();
+            Fact in = result.getInFact(node);
+            Fact out = result.getOutFact(node);
+            if (forward) {
+                cfg.getPredsOf(node).forEach(pred ->
+                        analysis.meetInto(result.getOutFact(pred), in));
+            } else {
+                cfg.getSuccsOf(node).forEach(succ ->
+                        analysis.meetInto(result.getInFact(succ), out));
+            }
+            if (analysis.transferNode(node, in, out)) {
+                workList.addAll(forward ? cfg.getSuccsOf(node) : cfg.getPredsOf(node));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return the nodes of {@code cfg} which are reachable from
+     * {@code roots} along the flow direction, including the roots.
+     */
+    private Set<Node> reachableFrom(CFG<Node> cfg, Collection<Node> roots) {
+        boolean forward = analysis.isForward();
+        Set<Node> reachable = Sets.newSet();
+        Queue<Node> queue = new SetQueue<>();
+        queue.addAll(roots);
+        while (!queue.isEmpty()) {
+            Node node = queue.poll();
+            if (cfg.hasNode(node) && reachable.add(node)) {
+                queue.addAll(forward ? cfg.getSuccsOf(node) : cfg.getPredsOf(node));
+            }
+        }
+        return reachable;
+    }
+
+    /**
+     * Copies a fact by meeting it into a new initial fact, which is
+     * the identity of meet.
+     */
+    private Fact copyFact(CFG<Node> cfg, Fact fact) {
+        Fact copy = analysis.newInitialFact(cfg);
+        analysis.meetInto(fact, copy);
+        return copy;
+    }
+
     /**
      * Creates and initializes a new data-flow result for given CFG.
      *
@@ -81,8 +238,8 @@ public abstract class Solver<Node, Fact> {
         result.setOutFact(cfg.getEntry(), analysis.newBoundaryFact(cfg));
         for (Node node : cfg) {
             if (!cfg.isEntry(node)) {
-                result.setOutFact(node, analysis.newInitialFact());
-                result.setInFact(node, analysis.newInitialFact());
+                result.setOutFact(node, analysis.newInitialFact(cfg));
+                result.setInFact(node, analysis.newInitialFact(cfg));
             }
         }
     }
@@ -92,8 +249,8 @@ public abstract class Solver<Node, Fact> {
         result.setInFact(cfg.getExit(), analysis.newBoundaryFact(cfg));
         for (Node node : cfg) {
             if (!(cfg.isExit(node))) {
-                result.setInFact(node, analysis.newInitialFact());
-                result.setOutFact(node, analysis.newInitialFact());
+                result.setInFact(node, analysis.newInitialFact(cfg));
+                result.setOutFact(node, analysis.newInitialFact(cfg));
             }
         }
     }
@@ -34,6 +34,31 @@ public class DeadCodeTest {
                 "-a", "constprop=edge-refine:false");
     }
 
+    void testSparseDCD(String inputClass) {
+        Tests.test(inputClass, "src/test/resources/dataflow/deadcode/",
+                DeadCodeDetection.ID,
+                "-a", "livevar=strongly:false",
+                "-a", "constprop=edge-refine:false;sparse:true");
+    }
+
+    /**
+     * Runs both live variable analysis and constant propagation with
+     * given kind of solver.
+     */
+    void testDCDWithSolver(String inputClass, String solver) {
+        Tests.test(inputClass, "src/test/resources/dataflow/deadcode/",
+                DeadCodeDetection.ID,
+                "-a", "livevar=strongly:false;solver:" + solver,
+                "-a", "constprop=edge-refine:false;solver:" + solver);
+    }
+
+    void testConditionalDCD(String inputClass) {
+        Tests.test(inputClass, "src/test/resources/dataflow/deadcode/",
+                DeadCodeDetection.ID,
+                "-a", "livevar=strongly:false",
+                "-a", "constprop=edge-refine:false;conditional:true");
+    }
+
     @Test
     public void testControlFlowUnreachable() {
         testDCD("ControlFlowUnreachable");
@@ -58,4 +83,44 @@ public class DeadCodeTest {
     public void testLoops() {
         testDCD("Loops");
     }
+
+    @Test
+    public void testSparseUnreachableSwitchBranch() {
+        testSparseDCD("UnreachableSwitchBranch");
+    }
+
+    @Test
+    public void testSparseLoops() {
+        testSparseDCD("Loops");
+    }
+
+    @Test
+    public void testConditionalUnreachableIfBranch() {
+        testConditionalDCD("UnreachableIfBranch");
+    }
+
+    @Test
+    public void testConditionalNonIntBranch() {
+        testConditionalDCD("NonIntBranch");
+    }
+
+    @Test
+    public void testPrioritySolverLoops() {
+        testDCDWithSolver("Loops", "priority");
+    }
+
+    @Test
+    public void testPrioritySolverDeadAssignment() {
+        testDCDWithSolver("DeadAssignment", "priority");
+    }
+
+    @Test
+    public void testWTOSolverLoops() {
+        testDCDWithSolver("Loops", "wto");
+    }
+
+    @Test
+    public void testWTOSolverDeadAssignment() {
+        testDCDWithSolver("DeadAssignment", "wto");
+    }
 }
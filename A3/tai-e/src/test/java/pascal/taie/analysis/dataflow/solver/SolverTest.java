@@ -0,0 +1,312 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.solver;
+
+import org.junit.Assert;
+import org.junit.Test;
+import pascal.taie.analysis.dataflow.analysis.DataflowAnalysis;
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.dataflow.fact.SetFact;
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.analysis.graph.cfg.Edge;
+import pascal.taie.analysis.graph.cfg.TestCFG;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tests the solvers on hand-built CFGs. The different kinds of solvers
+ * are compared with the work-list solver, and {@link Solver#resolve}
+ * is compared with {@link Solver#solve} after the CFG has been changed.
+ */
+public class SolverTest {
+
+    /**
+     * A reaching-definition-like analysis on the nodes of a {@link TestCFG}.
+     * Each node may define a variable, and a fact is the set of reaching
+     * definitions in the form of "variable@node".
+     */
+    private static class ReachingDefs
+            implements DataflowAnalysis<Integer, SetFact<String>> {
+
+        private final boolean forward;
+
+        private final Map<Integer, String> defs = new HashMap<>();
+
+        private ReachingDefs(boolean forward) {
+            this.forward = forward;
+        }
+
+        @Override
+        public boolean isForward() {
+            return forward;
+        }
+
+        @Override
+        public SetFact<String> newBoundaryFact(CFG<Integer> cfg) {
+            return new SetFact<>();
+        }
+
+        @Override
+        public SetFact<String> newInitialFact() {
+            return new SetFact<>();
+        }
+
+        @Override
+        public void meetInto(SetFact<String> fact, SetFact<String> target) {
+            target.union(fact);
+        }
+
+        @Override
+        public boolean transferNode(Integer node, SetFact<String> in, SetFact<String> out) {
+            SetFact<String> result = (forward ? in : out).copy();
+            String var = defs.get(node);
+            if (var != null) {
+                result.removeIf(def -> def.startsWith(var + "@"));
+                result.add(var + "@" + node);
+            }
+            SetFact<String> target = forward ? out : in;
+            if (result.equals(target)) {
+                return false;
+            }
+            target.set(result);
+            return true;
+        }
+
+        @Override
+        public boolean needTransferEdge(Edge<Integer> edge) {
+            return false;
+        }
+
+        @Override
+        public SetFact<String> transferEdge(Edge<Integer> edge, SetFact<String> nodeFact) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    /**
+     * An analysis which counts the maximum number of times that
+     * an increment node (2 in the CFG given by {@link #newLoopCFG()})
+     * may have been executed. The counts are unbounded in loops,
+     * thus the analysis relies on widening (to {@link #INFINITY}).
+     */
+    private static class MaxCount implements DataflowAnalysis<Integer, int[]> {
+
+        private static final int INFINITY = Integer.MAX_VALUE;
+
+        @Override
+        public boolean isForward() {
+            return true;
+        }
+
+        @Override
+        public int[] newBoundaryFact(CFG<Integer> cfg) {
+            return new int[]{0};
+        }
+
+        @Override
+        public int[] newInitialFact() {
+            return new int[]{0};
+        }
+
+        @Override
+        public void meetInto(int[] fact, int[] target) {
+            target[0] = Math.max(fact[0], target[0]);
+        }
+
+        @Override
+        public void widenInto(int[] fact, int[] target) {
+            if (fact[0] > target[0]) {
+                target[0] = INFINITY;
+            }
+        }
+
+        @Override
+        public boolean transferNode(Integer node, int[] in, int[] out) {
+            int count = node == 2 && in[0] != INFINITY ? in[0] + 1 : in[0];
+            if (count == out[0]) {
+                return false;
+            }
+            out[0] = count;
+            return true;
+        }
+
+        @Override
+        public boolean needTransferEdge(Edge<Integer> edge) {
+            return false;
+        }
+
+        @Override
+        public int[] transferEdge(Edge<Integer> edge, int[] nodeFact) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    /**
+     * Creates a CFG with a branch (1 -> 3) and a loop (3 -> 2).
+     */
+    private static TestCFG<Integer> newCFG() {
+        TestCFG<Integer> cfg = new TestCFG<>(0, 9);
+        cfg.addEdge(0, 1);
+        cfg.addEdge(1, 2);
+        cfg.addEdge(2, 3);
+        cfg.addEdge(3, 4);
+        cfg.addEdge(4, 9);
+        cfg.addEdge(1, 3);
+        cfg.addEdge(3, 2);
+        return cfg;
+    }
+
+    /**
+     * Creates a CFG with a loop (1 -> 2 -> 1), where 1 is the loop head.
+     */
+    private static TestCFG<Integer> newLoopCFG() {
+        TestCFG<Integer> cfg = new TestCFG<>(0, 9);
+        cfg.addEdge(0, 1);
+        cfg.addEdge(1, 2);
+        cfg.addEdge(2, 1);
+        cfg.addEdge(1, 9);
+        return cfg;
+    }
+
+    private static ReachingDefs newAnalysis(boolean forward) {
+        ReachingDefs analysis = new ReachingDefs(forward);
+        analysis.defs.put(1, "x");
+        analysis.defs.put(2, "y");
+        analysis.defs.put(3, "x");
+        analysis.defs.put(4, "y");
+        return analysis;
+    }
+
+    private static void assertSameAsSolve(
+            Solver<Integer, SetFact<String>> solver, CFG<Integer> cfg,
+            DataflowResult<Integer, SetFact<String>> result) {
+        DataflowResult<Integer, SetFact<String>> expected = solver.solve(cfg);
+        for (Integer node : cfg) {
+            Assert.assertEquals("IN fact of " + node,
+                    expected.getInFact(node), result.getInFact(node));
+            Assert.assertEquals("OUT fact of " + node,
+                    expected.getOutFact(node), result.getOutFact(node));
+        }
+    }
+
+    @Test
+    public void testSolverKinds() {
+        for (boolean forward : List.of(true, false)) {
+            TestCFG<Integer> cfg = newCFG();
+            ReachingDefs analysis = newAnalysis(forward);
+            DataflowResult<Integer, SetFact<String>> expected =
+                    Solver.makeSolver(analysis).solve(cfg);
+            for (String kind : List.of("priority", "wto")) {
+                DataflowResult<Integer, SetFact<String>> result =
+                        Solver.makeSolver(analysis, kind).solve(cfg);
+                for (Integer node : cfg) {
+                    Assert.assertEquals(kind + " IN fact of " + node,
+                            expected.getInFact(node), result.getInFact(node));
+                    Assert.assertEquals(kind + " OUT fact of " + node,
+                            expected.getOutFact(node), result.getOutFact(node));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testWTOWidening() {
+        TestCFG<Integer> cfg = newLoopCFG();
+        DataflowResult<Integer, int[]> result =
+                Solver.makeSolver(new MaxCount(), "wto").solve(cfg);
+        Assert.assertEquals(MaxCount.INFINITY, result.getInFact(1)[0]);
+        Assert.assertEquals(MaxCount.INFINITY, result.getOutFact(2)[0]);
+        Assert.assertEquals(MaxCount.INFINITY, result.getOutFact(9)[0]);
+    }
+
+    @Test
+    public void testRemoveEdge() {
+        for (boolean forward : List.of(true, false)) {
+            TestCFG<Integer> cfg = newCFG();
+            Solver<Integer, SetFact<String>> solver =
+                    Solver.makeSolver(newAnalysis(forward));
+            DataflowResult<Integer, SetFact<String>> previous = solver.solve(cfg);
+            Edge<Integer> removed = cfg.removeEdge(3, 2);
+            assertSameAsSolve(solver, cfg, solver.resolve(
+                    cfg, previous, List.of(), List.of(removed)));
+        }
+    }
+
+    @Test
+    public void testAddEdge() {
+        for (boolean forward : List.of(true, false)) {
+            TestCFG<Integer> cfg = newCFG();
+            Solver<Integer, SetFact<String>> solver =
+                    Solver.makeSolver(newAnalysis(forward));
+            DataflowResult<Integer, SetFact<String>> previous = solver.solve(cfg);
+            Edge<Integer> added = cfg.addEdge(4, 1);
+            assertSameAsSolve(solver, cfg, solver.resolve(
+                    cfg, previous, List.of(), List.of(added)));
+        }
+    }
+
+    @Test
+    public void testChangeNode() {
+        for (boolean forward : List.of(true, false)) {
+            TestCFG<Integer> cfg = newCFG();
+            ReachingDefs analysis = newAnalysis(forward);
+            Solver<Integer, SetFact<String>> solver = Solver.makeSolver(analysis);
+            DataflowResult<Integer, SetFact<String>> previous = solver.solve(cfg);
+            analysis.defs.put(2, "x");
+            assertSameAsSolve(solver, cfg, solver.resolve(
+                    cfg, previous, List.of(2), List.of()));
+        }
+    }
+
+    @Test
+    public void testInsertNode() {
+        for (boolean forward : List.of(true, false)) {
+            TestCFG<Integer> cfg = newCFG();
+            ReachingDefs analysis = newAnalysis(forward);
+            Solver<Integer, SetFact<String>> solver = Solver.makeSolver(analysis);
+            DataflowResult<Integer, SetFact<String>> previous = solver.solve(cfg);
+            // inserts node 5 between 4 and exit
+            analysis.defs.put(5, "x");
+            List<Edge<Integer>> changedEdges = List.of(
+                    cfg.removeEdge(4, 9), cfg.addEdge(4, 5), cfg.addEdge(5, 9));
+            assertSameAsSolve(solver, cfg, solver.resolve(
+                    cfg, previous, List.of(5), changedEdges));
+        }
+    }
+
+    @Test
+    public void testPreviousUnchanged() {
+        TestCFG<Integer> cfg = newCFG();
+        Solver<Integer, SetFact<String>> solver =
+                Solver.makeSolver(newAnalysis(true));
+        DataflowResult<Integer, SetFact<String>> previous = solver.solve(cfg);
+        Map<Integer, String> outFacts = new HashMap<>();
+        cfg.forEach(node -> outFacts.put(node, previous.getOutFact(node).toString()));
+        Edge<Integer> added = cfg.addEdge(4, 1);
+        solver.resolve(cfg, previous, List.of(), List.of(added));
+        cfg.forEach(node -> Assert.assertEquals(
+                outFacts.get(node), previous.getOutFact(node).toString()));
+    }
+}
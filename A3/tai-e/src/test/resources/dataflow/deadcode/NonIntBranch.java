@@ -0,0 +1,18 @@
+class NonIntBranch {
+
+    int nullCheck(Object o) {
+        int x = 1;
+        if (o == null) {
+            x = 2;
+        }
+        return x;
+    }
+
+    int longCompare(long a, long b) {
+        int x = 1;
+        if (a < b) {
+            x = 2;
+        }
+        return x;
+    }
+}
@@ -24,9 +24,20 @@ package pascal.taie.analysis.dataflow.analysis.constprop;
 
 import pascal.taie.analysis.dataflow.fact.MapFact;
 import pascal.taie.ir.exp.Var;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.AnalysisException;
 
-import java.util.Collections;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 /**
  * Represents data facts of constant propagation, which maps variables
@@ -37,15 +48,50 @@ import java.util.Map;
  * it represents that the lattice value of the variable is UNDEF;
  * moreover, if we set the lattice value of a variable to UNDEF,
  * it effectively removes the variable from the CPFact.
+ * <p>
+ * Instead of a map, the lattice values are stored in two arrays indexed
+ * by {@link Var#getIndex()}: {@link #kinds} holds the kind of each value
+ * and {@link #constants} holds the integer of each constant value.
+ * Hence, all variables in a CPFact must belong to the same method.
+ * The arrays are shared by {@link #copy()} and only duplicated when
+ * one of the sharing facts is modified (copy-on-write).
  */
 public class CPFact extends MapFact<Var, Value> {
 
+    private static final byte UNDEF = 0;
+
+    private static final byte CONSTANT = 1;
+
+    private static final byte NAC = 2;
+
+    private static final byte[] EMPTY_KINDS = new byte[0];
+
+    private static final int[] EMPTY_CONSTANTS = new int[0];
+
+    /**
+     * The method which declares the variables in this fact,
+     * or null if no variables have been put in this fact.
+     */
+    private JMethod method;
+
+    private byte[] kinds;
+
+    private int[] constants;
+
+    /**
+     * Whether {@link #kinds} and {@link #constants} may be shared
+     * with other facts.
+     */
+    private boolean shared;
+
     public CPFact() {
-        this(Collections.emptyMap());
+        this(null, EMPTY_KINDS, EMPTY_CONSTANTS);
     }
 
-    private CPFact(Map<Var, Value> map) {
-        super(map);
+    private CPFact(JMethod method, byte[] kinds, int[] constants) {
+        this.method = method;
+        this.kinds = kinds;
+        this.constants = constants;
     }
 
     /**
@@ -54,7 +100,9 @@ public class CPFact extends MapFact<Var, Value> {
      */
     @Override
     public Value get(Var key) {
-        return map.getOrDefault(key, Value.getUndef());
+        int i = key.getIndex();
+        return i < kinds.length && method == key.getMethod()
+                ? valueAt(i) : Value.getUndef();
     }
 
     @Override
@@ -64,13 +112,273 @@ public class CPFact extends MapFact<Var, Value> {
             // then we remove the variable from the CPFact
             // as we use absence to represent UNDEF.
             return remove(key) != null;
-        } else {
-            return super.update(key, value);
         }
+        checkMethod(key.getMethod());
+        int i = key.getIndex();
+        byte kind = value.isNAC() ? NAC : CONSTANT;
+        int constant = value.isConstant() ? value.getConstant() : 0;
+        if (i < kinds.length && kinds[i] == kind && constants[i] == constant) {
+            return false;
+        }
+        prepareWrite(i + 1);
+        kinds[i] = kind;
+        constants[i] = constant;
+        return true;
+    }
+
+    @Override
+    public Value remove(Var key) {
+        int i = key.getIndex();
+        if (i >= kinds.length || kinds[i] == UNDEF
+                || method != key.getMethod()) {
+            return null;
+        }
+        Value oldValue = valueAt(i);
+        prepareWrite(i + 1);
+        kinds[i] = UNDEF;
+        constants[i] = 0;
+        return oldValue;
+    }
+
+    @Override
+    public boolean copyFrom(MapFact<Var, Value> fact) {
+        if (!(fact instanceof CPFact other)) {
+            boolean changed = false;
+            for (Var var : fact.keySet()) {
+                changed |= update(var, fact.get(var));
+            }
+            return changed;
+        }
+        if (other.method == null) {
+            return false;
+        }
+        checkMethod(other.method);
+        if (isEmpty()) {
+            // share the arrays of other fact
+            kinds = other.kinds;
+            constants = other.constants;
+            shared = other.shared = true;
+            return !other.isEmpty();
+        }
+        boolean changed = false;
+        for (int i = 0; i < other.kinds.length; ++i) {
+            byte kind = other.kinds[i];
+            if (kind != UNDEF && (i >= kinds.length || kinds[i] != kind
+                    || constants[i] != other.constants[i])) {
+                prepareWrite(other.kinds.length);
+                kinds[i] = kind;
+                constants[i] = other.constants[i];
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Meets other fact into this fact, i.e., for each variable, sets its
+     * value in this fact to the meet of its values in this and other facts.
+     *
+     * @return true if this fact changed as a result of the call, otherwise false.
+     */
+    public boolean meet(CPFact other) {
+        if (other.method == null) {
+            return false;
+        }
+        checkMethod(other.method);
+        boolean changed = false;
+        for (int i = 0; i < other.kinds.length; ++i) {
+            byte kind = other.kinds[i];
+            if (kind == UNDEF) {
+                continue;
+            }
+            byte oldKind = i < kinds.length ? kinds[i] : UNDEF;
+            if (oldKind == NAC) {
+                continue;
+            }
+            if (oldKind == UNDEF) {
+                prepareWrite(other.kinds.length);
+                kinds[i] = kind;
+                constants[i] = other.constants[i];
+                changed = true;
+            } else if (kind == NAC || constants[i] != other.constants[i]) {
+                prepareWrite(other.kinds.length);
+                kinds[i] = NAC;
+                constants[i] = 0;
+                changed = true;
+            }
+        }
+        return changed;
     }
 
     @Override
     public CPFact copy() {
-        return new CPFact(this.map);
+        shared = true;
+        CPFact copy = new CPFact(method, kinds, constants);
+        copy.shared = true;
+        return copy;
+    }
+
+    @Override
+    public void clear() {
+        kinds = EMPTY_KINDS;
+        constants = EMPTY_CONSTANTS;
+        shared = false;
+    }
+
+    /**
+     * @return true if this fact contains no variables, otherwise false.
+     */
+    public boolean isEmpty() {
+        for (byte kind : kinds) {
+            if (kind != UNDEF) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public Set<Var> keySet() {
+        return new AbstractSet<>() {
+
+            @Override
+            public boolean contains(Object o) {
+                return o instanceof Var var && !get(var).isUndef();
+            }
+
+            @Override
+            public Iterator<Var> iterator() {
+                return new Iterator<>() {
+
+                    private int next = nextIndex(0);
+
+                    @Override
+                    public boolean hasNext() {
+                        return next >= 0;
+                    }
+
+                    @Override
+                    public Var next() {
+                        if (next < 0) {
+                            throw new NoSuchElementException();
+                        }
+                        Var var = varAt(next);
+                        next = nextIndex(next + 1);
+                        return var;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return (int) indexes().count();
+            }
+        };
+    }
+
+    @Override
+    public Stream<Map.Entry<Var, Value>> entries() {
+        return indexes().mapToObj(i -> Map.entry(varAt(i), valueAt(i)));
+    }
+
+    @Override
+    public void forEach(BiConsumer<Var, Value> action) {
+        for (int i = nextIndex(0); i >= 0; i = nextIndex(i + 1)) {
+            action.accept(varAt(i), valueAt(i));
+        }
+    }
+
+    /**
+     * Ensures that the arrays of this fact are not shared with
+     * other facts, and can hold at least {@code length} variables.
+     */
+    private void prepareWrite(int length) {
+        if (shared || kinds.length < length) {
+            int newLength = Math.max(kinds.length, length);
+            if (method != null) {
+                newLength = Math.max(newLength, method.getIR().getVars().size());
+            }
+            kinds = Arrays.copyOf(kinds, newLength);
+            constants = Arrays.copyOf(constants, newLength);
+            shared = false;
+        }
+    }
+
+    private void checkMethod(JMethod varMethod) {
+        if (method == null) {
+            method = varMethod;
+        } else if (method != varMethod) {
+            throw new AnalysisException("CPFact of " + method +
+                    " cannot hold variables of " + varMethod);
+        }
+    }
+
+    private Value valueAt(int i) {
+        return switch (kinds[i]) {
+            case CONSTANT -> Value.makeConstant(constants[i]);
+            case NAC -> Value.getNAC();
+            default -> Value.getUndef();
+        };
+    }
+
+    private Var varAt(int i) {
+        return method.getIR().getVar(i);
+    }
+
+    /**
+     * @return the smallest index which is not less than {@code from}
+     * and whose value is not UNDEF, or -1 if there is no such index.
+     */
+    private int nextIndex(int from) {
+        for (int i = from; i < kinds.length; ++i) {
+            if (kinds[i] != UNDEF) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private IntStream indexes() {
+        return IntStream.range(0, kinds.length)
+                .filter(i -> kinds[i] != UNDEF);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CPFact that)) {
+            return false;
+        }
+        int n = Math.max(kinds.length, that.kinds.length);
+        for (int i = 0; i < n; ++i) {
+            byte k1 = i < kinds.length ? kinds[i] : UNDEF;
+            byte k2 = i < that.kinds.length ? that.kinds[i] : UNDEF;
+            if (k1 != k2 || (k1 == CONSTANT && constants[i] != that.constants[i])) {
+                return false;
+            }
+        }
+        return n == 0 || isEmpty() || method == that.method;
+    }
+
+    @Override
+    public int hashCode() {
+        int h = 0;
+        for (int i = nextIndex(0); i >= 0; i = nextIndex(i + 1)) {
+            h += i ^ (kinds[i] == CONSTANT ? constants[i] : -1);
+        }
+        return h;
+    }
+
+    @Override
+    public String toString() {
+        // Sort key-value pairs by key's string representation, so that the
+        // fact representation is stable across executions. This is useful
+        // for comparing expected results and the ones given by the analysis.
+        return "{" + entries()
+                .sorted(Comparator.comparing(e -> e.getKey().toString()))
+                .map(e -> e.getKey() + "=" + e.getValue())
+                .collect(Collectors.joining(", ")) + "}";
     }
 }
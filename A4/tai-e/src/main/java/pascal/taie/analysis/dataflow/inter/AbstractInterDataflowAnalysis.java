@@ -25,14 +25,17 @@ package pascal.taie.analysis.dataflow.inter;
 import pascal.taie.World;
 import pascal.taie.analysis.ProgramAnalysis;
 import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.graph.callgraph.CallGraphBuilder;
 import pascal.taie.analysis.graph.icfg.CallEdge;
 import pascal.taie.analysis.graph.icfg.CallToReturnEdge;
 import pascal.taie.analysis.graph.icfg.ICFG;
 import pascal.taie.analysis.graph.icfg.ICFGBuilder;
 import pascal.taie.analysis.graph.icfg.ICFGEdge;
+import pascal.taie.analysis.graph.icfg.LazyICFG;
 import pascal.taie.analysis.graph.icfg.NormalEdge;
 import pascal.taie.analysis.graph.icfg.ReturnEdge;
 import pascal.taie.config.AnalysisConfig;
+import pascal.taie.config.ConfigException;
 
 /**
  * Provides common functionalities for {@link InterDataflowAnalysis} implementations.
@@ -117,11 +120,42 @@ public abstract class AbstractInterDataflowAnalysis<Method, Node, Fact>
     protected abstract Fact transferReturnEdge(ReturnEdge<Node> edge, Fact returnOut);
     // ----------------------------------------------------------------
 
+    /**
+     * @return whether the solver processes the nodes in the order
+     * of their ranks, which is specified by option "solver".
+     */
+    private boolean isPrioritized() {
+        String solver = getOptions().getString("solver");
+        if (solver == null || solver.equals("worklist")) {
+            return false;
+        } else if (solver.equals("priority")) {
+            return true;
+        } else {
+            throw new ConfigException("Unknown inter-procedural solver: " + solver);
+        }
+    }
+
+    /**
+     * @return the ICFG to be analyzed. If option "lazy-icfg" is true,
+     * the edges of the ICFG are built on demand (see {@link LazyICFG}),
+     * and {@link ICFGBuilder} is not required by the analysis config,
+     * thus the full ICFG is never built. Otherwise, returns the ICFG
+     * built by {@link ICFGBuilder}.
+     */
+    @SuppressWarnings("unchecked")
+    protected ICFG<Method, Node> getICFG() {
+        if (getOptions().getBooleanOrDefault("lazy-icfg", false)) {
+            return (ICFG<Method, Node>) new LazyICFG(
+                    World.get().getResult(CallGraphBuilder.ID));
+        }
+        return World.get().getResult(ICFGBuilder.ID);
+    }
+
     @Override
     public Object analyze() {
-        icfg = World.get().getResult(ICFGBuilder.ID);
+        icfg = getICFG();
         initialize();
-        solver = new InterSolver<>(this, icfg);
+        solver = new InterSolver<>(this, icfg, isPrioritized());
         DataflowResult<Node, Fact> result = solver.solve();
         finish();
         return result;
@@ -44,6 +44,8 @@ import java.util.*;
 
 /**
  * Implementation of interprocedural constant propagation for int values.
+ * If option "summary" is true, the analysis is performed on method
+ * summaries by {@link SummaryConstantPropagation} instead of on the ICFG.
  */
 public class InterConstantPropagation extends
         AbstractInterDataflowAnalysis<JMethod, Stmt, CPFact> {
@@ -57,6 +59,14 @@ public class InterConstantPropagation extends
         cp = new ConstantPropagation(new AnalysisConfig(ConstantPropagation.ID));
     }
 
+    @Override
+    public Object analyze() {
+        if (getOptions().getBooleanOrDefault("summary", false)) {
+            return new SummaryConstantPropagation(cp, getICFG()).solve();
+        }
+        return super.analyze();
+    }
+
     @Override
     public boolean isForward() {
         return cp.isForward();
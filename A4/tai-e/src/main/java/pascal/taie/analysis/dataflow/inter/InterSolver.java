@@ -23,17 +23,42 @@
 package pascal.taie.analysis.dataflow.inter;
 
 import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.graph.icfg.CallToReturnEdge;
 import pascal.taie.analysis.graph.icfg.ICFG;
 import pascal.taie.analysis.graph.icfg.ICFGEdge;
+import pascal.taie.analysis.graph.icfg.NormalEdge;
 import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.collection.Maps;
 import pascal.taie.util.collection.SetQueue;
+import pascal.taie.util.collection.Sets;
+import pascal.taie.util.graph.MergedNode;
+import pascal.taie.util.graph.MergedSCCGraph;
+import pascal.taie.util.graph.SimpleGraph;
+import pascal.taie.util.graph.TopoSorter;
 
+import java.util.AbstractQueue;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.Queue;
+import java.util.Set;
 
 /**
  * Solver for inter-procedural data-flow analysis.
  * The workload of inter-procedural analysis is heavy, thus we always
  * adopt work-list algorithm for efficiency.
+ * <p>
+ * By default, the work-list is processed in FIFO order. If the solver is
+ * prioritized, the work-list always picks the pending node with the smallest
+ * rank, where the nodes are ranked first by their methods, in topological
+ * order of the SCC condensation of the call graph (i.e., callers before
+ * callees), then by reverse post-order of the control flow in each method.
+ * Thus, the nodes are mostly processed after the nodes they depend on.
  */
 class InterSolver<Method, Node, Fact> {
 
@@ -43,12 +68,24 @@ class InterSolver<Method, Node, Fact> {
 
     private DataflowResult<Node, Fact> result;
 
+    private final boolean prioritized;
+
     private Queue<Node> workList;
 
     InterSolver(InterDataflowAnalysis<Node, Fact> analysis,
                 ICFG<Method, Node> icfg) {
+        this(analysis, icfg, false);
+    }
+
+    /**
+     * @param prioritized whether process the work-list in the order of
+     *                    node ranks instead of FIFO order
+     */
+    InterSolver(InterDataflowAnalysis<Node, Fact> analysis,
+                ICFG<Method, Node> icfg, boolean prioritized) {
         this.analysis = analysis;
         this.icfg = icfg;
+        this.prioritized = prioritized;
     }
 
     DataflowResult<Node, Fact> solve() {
@@ -72,7 +109,7 @@ class InterSolver<Method, Node, Fact> {
 
     private void doSolve() {
         // TODO - finish me
-        workList = new SetQueue<>();
+        workList = prioritized ? new RankedQueue<>(rankNodes()) : new SetQueue<>();
         for (Node node : icfg) workList.add(node);
         while (!workList.isEmpty()) {
             Node node = workList.remove();
@@ -100,4 +137,138 @@ class InterSolver<Method, Node, Fact> {
 //            }
 //        } while (change);
     }
+
+    /**
+     * @return all nodes of the ICFG in the order of their ranks.
+     */
+    private List<Node> rankNodes() {
+        SimpleGraph<Method> callGraph = new SimpleGraph<>();
+        for (Node node : icfg) {
+            Method caller = icfg.getContainingMethodOf(node);
+            callGraph.addNode(caller);
+            if (icfg.isCallSite(node)) {
+                for (Method callee : icfg.getCalleesOf(node)) {
+                    callGraph.addNode(callee);
+                    callGraph.addEdge(caller, callee);
+                }
+            }
+        }
+        List<Node> nodes = new ArrayList<>(icfg.getNumberOfNodes());
+        Set<Node> visited = Sets.newSet(icfg.getNumberOfNodes());
+        List<MergedNode<Method>> sccs =
+                new TopoSorter<>(new MergedSCCGraph<>(callGraph)).get();
+        for (MergedNode<Method> scc : sccs) {
+            for (Method method : scc.getNodes()) {
+                nodes.addAll(reversePostOrder(icfg.getEntryOf(method), visited));
+            }
+        }
+        // nodes that are unreachable from the entries of their methods
+        for (Node node : icfg) {
+            if (visited.add(node)) {
+                nodes.add(node);
+            }
+        }
+        return nodes;
+    }
+
+    /**
+     * Computes reverse post-order of the nodes reachable from {@code entry}
+     * via intra-procedural edges, i.e., normal and call-to-return edges.
+     */
+    private List<Node> reversePostOrder(Node entry, Set<Node> visited) {
+        List<Node> postOrder = new ArrayList<>();
+        if (!visited.add(entry)) {
+            return postOrder;
+        }
+        Deque<Node> stack = new ArrayDeque<>();
+        Deque<Iterator<ICFGEdge<Node>>> iterators = new ArrayDeque<>();
+        stack.push(entry);
+        iterators.push(icfg.getOutEdgesOf(entry).iterator());
+        while (!stack.isEmpty()) {
+            Iterator<ICFGEdge<Node>> it = iterators.peek();
+            if (it.hasNext()) {
+                ICFGEdge<Node> edge = it.next();
+                Node next = edge.getTarget();
+                if ((edge instanceof NormalEdge || edge instanceof CallToReturnEdge)
+                        && visited.add(next)) {
+                    stack.push(next);
+                    iterators.push(icfg.getOutEdgesOf(next).iterator());
+                }
+            } else {
+                postOrder.add(stack.pop());
+                iterators.pop();
+            }
+        }
+        Collections.reverse(postOrder);
+        return postOrder;
+    }
+
+    /**
+     * Work-list which always polls the pending node with the smallest rank.
+     * The pending nodes are kept in a {@link BitSet} over the ranks,
+     * so that insertion and membership test take constant time.
+     */
+    private static class RankedQueue<Node> extends AbstractQueue<Node> {
+
+        private final List<Node> nodes;
+
+        private final Map<Node, Integer> ranks;
+
+        private final BitSet pending;
+
+        /**
+         * @param nodes all nodes in the order of their ranks
+         */
+        private RankedQueue(List<Node> nodes) {
+            this.nodes = nodes;
+            this.ranks = Maps.newMap(nodes.size());
+            for (int i = 0; i < nodes.size(); ++i) {
+                ranks.put(nodes.get(i), i);
+            }
+            this.pending = new BitSet(nodes.size());
+        }
+
+        @Override
+        public boolean offer(Node node) {
+            pending.set(ranks.get(node));
+            return true;
+        }
+
+        @Override
+        public Node poll() {
+            int i = pending.nextSetBit(0);
+            if (i < 0) {
+                return null;
+            }
+            pending.clear(i);
+            return nodes.get(i);
+        }
+
+        @Override
+        public Node peek() {
+            int i = pending.nextSetBit(0);
+            return i < 0 ? null : nodes.get(i);
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            Integer rank = ranks.get(o);
+            return rank != null && pending.get(rank);
+        }
+
+        @Override
+        public int size() {
+            return pending.cardinality();
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return pending.isEmpty();
+        }
+
+        @Override
+        public Iterator<Node> iterator() {
+            return pending.stream().mapToObj(nodes::get).iterator();
+        }
+    }
 }
@@ -0,0 +1,276 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.inter;
+
+import pascal.taie.analysis.dataflow.analysis.constprop.CPFact;
+import pascal.taie.analysis.dataflow.analysis.constprop.ConstantPropagation;
+import pascal.taie.analysis.dataflow.analysis.constprop.Value;
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.analysis.graph.cfg.CFGBuilder;
+import pascal.taie.analysis.graph.icfg.ICFG;
+import pascal.taie.ir.IR;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.MultiMap;
+import pascal.taie.util.collection.SetQueue;
+import pascal.taie.util.collection.Sets;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+
+/**
+ * Summary-based interprocedural constant propagation.
+ * <p>
+ * Instead of propagating facts through the call and return edges of
+ * the ICFG, this analysis computes a summary for each method under each
+ * calling context, where a context consists of the values of the
+ * arguments, and the summary is the value returned by the method in
+ * that context. A method is analyzed intra-procedurally once per
+ * context, and a call site just applies the summaries of its callees
+ * to the values of its arguments, so that the summaries are reused by
+ * all call sites that pass the same values. When a summary changes,
+ * the contexts that applied it are re-analyzed.
+ * <p>
+ * To bound the number of contexts, once a method has been analyzed in
+ * {@link #MAX_CONTEXTS} contexts, its further calls are analyzed in the
+ * context in which all arguments are NAC. The resulting fact of each
+ * statement is the meet of its facts in all contexts reachable from
+ * the entry methods. As the return values are not merged across
+ * contexts, the result may be more precise than that of the ICFG-based
+ * {@link InterConstantPropagation}.
+ */
+class SummaryConstantPropagation {
+
+    /**
+     * Maximum number of contexts (except the all-NAC context) of a method.
+     */
+    private static final int MAX_CONTEXTS = 16;
+
+    private final ConstantPropagation cp;
+
+    private final ICFG<JMethod, Stmt> icfg;
+
+    /**
+     * Return value of each context.
+     */
+    private final Map<Context, Value> summaries = Maps.newMap();
+
+    /**
+     * Intra-procedural result of each context.
+     */
+    private final Map<Context, DataflowResult<Stmt, CPFact>> results = Maps.newMap();
+
+    /**
+     * Contexts of the callees applied by each context.
+     */
+    private final MultiMap<Context, Context> calleeContexts = Maps.newMultiMap();
+
+    /**
+     * Contexts which applied the summary of each context.
+     */
+    private final MultiMap<Context, Context> callerContexts = Maps.newMultiMap();
+
+    private final MultiMap<JMethod, Context> contextsOf = Maps.newMultiMap();
+
+    private final Queue<Context> workList = new SetQueue<>();
+
+    SummaryConstantPropagation(ConstantPropagation cp, ICFG<JMethod, Stmt> icfg) {
+        this.cp = cp;
+        this.icfg = icfg;
+    }
+
+    DataflowResult<Stmt, CPFact> solve() {
+        List<Context> entries = icfg.entryMethods()
+                .map(this::getNACContext)
+                .toList();
+        entries.forEach(this::getSummary);
+        while (!workList.isEmpty()) {
+            Context context = workList.poll();
+            Value summary = analyze(context);
+            Value oldSummary = summaries.get(context);
+            // keeps summaries monotone, which guarantees termination
+            Value newSummary = cp.meetValue(oldSummary, summary);
+            if (!newSummary.equals(oldSummary)) {
+                summaries.put(context, newSummary);
+                workList.addAll(callerContexts.get(context));
+            }
+        }
+        return collectResult(entries);
+    }
+
+    /**
+     * @return the summary of given context. If the context is new,
+     * it is scheduled to be analyzed and UNDEF is returned.
+     */
+    private Value getSummary(Context context) {
+        Value summary = summaries.get(context);
+        if (summary == null) {
+            contextsOf.put(context.method(), context);
+            summary = Value.getUndef();
+            summaries.put(context, summary);
+            workList.add(context);
+        }
+        return summary;
+    }
+
+    private Context getNACContext(JMethod method) {
+        List<Value> args = Collections.nCopies(
+                method.getParamCount(), Value.getNAC());
+        return new Context(method, args);
+    }
+
+    /**
+     * Analyzes the method of given context, and records the result.
+     *
+     * @return the return value of the method in the context.
+     */
+    private Value analyze(Context context) {
+        calleeContexts.removeAll(context);
+        JMethod method = context.method();
+        IR ir = method.getIR();
+        CFG<Stmt> cfg = ir.getResult(CFGBuilder.ID);
+        DataflowResult<Stmt, CPFact> result = new DataflowResult<>();
+        for (Stmt node : cfg) {
+            result.setInFact(node, new CPFact());
+            result.setOutFact(node, new CPFact());
+        }
+        CPFact boundary = new CPFact();
+        for (int i = 0; i < ir.getParams().size(); ++i) {
+            Var param = ir.getParam(i);
+            if (ConstantPropagation.canHoldInt(param)) {
+                boundary.update(param, context.args().get(i));
+            }
+        }
+        result.setOutFact(cfg.getEntry(), boundary);
+        Queue<Stmt> nodes = new SetQueue<>();
+        cfg.forEach(nodes::add);
+        nodes.remove(cfg.getEntry());
+        while (!nodes.isEmpty()) {
+            Stmt node = nodes.poll();
+            CPFact in = result.getInFact(node);
+            for (Stmt pred : cfg.getPredsOf(node)) {
+                cp.meetInto(result.getOutFact(pred), in);
+            }
+            if (transferNode(context, node, in, result.getOutFact(node))) {
+                nodes.addAll(cfg.getSuccsOf(node));
+            }
+        }
+        results.put(context, result);
+        CPFact exitFact = result.getOutFact(cfg.getExit());
+        Value returnValue = Value.getUndef();
+        for (Var returnVar : ir.getReturnVars()) {
+            returnValue = cp.meetValue(returnValue, exitFact.get(returnVar));
+        }
+        return returnValue;
+    }
+
+    private boolean transferNode(Context context, Stmt stmt, CPFact in, CPFact out) {
+        if (!(stmt instanceof Invoke invoke)) {
+            return cp.transferNode(stmt, in, out);
+        }
+        // the callees are applied (and thus analyzed) even if the result
+        // is not used, so that their statements also have facts
+        List<Value> args = new ArrayList<>();
+        for (Var arg : invoke.getInvokeExp().getArgs()) {
+            args.add(ConstantPropagation.canHoldInt(arg) ?
+                    in.get(arg) : Value.getNAC());
+        }
+        Value result = Value.getUndef();
+        for (JMethod callee : icfg.getCalleesOf(stmt)) {
+            result = cp.meetValue(result, applySummary(context, callee, args));
+        }
+        boolean changed = out.copyFrom(in);
+        Var lhs = invoke.getResult();
+        if (lhs != null && ConstantPropagation.canHoldInt(lhs)) {
+            changed |= out.update(lhs, result);
+        }
+        return changed;
+    }
+
+    /**
+     * Applies the summary of the callee in given caller context.
+     *
+     * @return the value returned by the callee.
+     */
+    private Value applySummary(Context caller, JMethod callee, List<Value> args) {
+        if (callee.isAbstract() || callee.isNative()) {
+            return Value.getNAC();
+        }
+        Context context = new Context(callee, args);
+        if (!summaries.containsKey(context) &&
+                contextsOf.get(callee).size() >= MAX_CONTEXTS) {
+            context = getNACContext(callee);
+        }
+        calleeContexts.put(caller, context);
+        callerContexts.put(context, caller);
+        return getSummary(context);
+    }
+
+    /**
+     * Meets the results of the contexts reachable from the entry contexts.
+     */
+    private DataflowResult<Stmt, CPFact> collectResult(List<Context> entries) {
+        DataflowResult<Stmt, CPFact> result = new DataflowResult<>();
+        for (Stmt node : icfg) {
+            result.setInFact(node, new CPFact());
+            result.setOutFact(node, new CPFact());
+        }
+        Set<Context> reached = Sets.newSet();
+        Queue<Context> queue = new SetQueue<>();
+        queue.addAll(entries);
+        while (!queue.isEmpty()) {
+            Context context = queue.poll();
+            if (!reached.add(context)) {
+                continue;
+            }
+            DataflowResult<Stmt, CPFact> contextResult = results.get(context);
+            CFG<Stmt> cfg = context.method().getIR().getResult(CFGBuilder.ID);
+            for (Stmt node : cfg) {
+                CPFact in = contextResult.getInFact(node);
+                if (in != null) {
+                    result.getInFact(node).meet(in);
+                }
+                CPFact out = contextResult.getOutFact(node);
+                if (out != null) {
+                    result.getOutFact(node).meet(out);
+                }
+            }
+            queue.addAll(calleeContexts.get(context));
+        }
+        return result;
+    }
+
+    /**
+     * A method with the values of its arguments.
+     */
+    private record Context(JMethod method, List<Value> args) {
+    }
+}
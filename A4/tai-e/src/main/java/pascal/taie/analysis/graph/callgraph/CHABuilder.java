@@ -26,38 +26,74 @@ import pascal.taie.World;
 import pascal.taie.ir.proginfo.MethodRef;
 import pascal.taie.ir.stmt.Invoke;
 import pascal.taie.language.classes.*;
-import polyglot.ast.NullLit;
+import pascal.taie.util.collection.Maps;
 
 import java.util.*;
 
 /**
  * Implementation of the CHA algorithm.
+ * <p>
+ * As many call sites share the same method reference, and many method
+ * references share the same declaring class and subsignature, the results
+ * of {@link #dispatch(JClass, Subsignature)} and {@link #resolve(Invoke)}
+ * are cached, so that each hierarchy walk is performed only once.
+ * The caches are concurrent, as the call sites may be resolved
+ * in parallel, see {@link #buildCallGraphInParallel(JMethod)}.
  */
 class CHABuilder implements CGBuilder<Invoke, JMethod> {
 
+    private final boolean parallel;
+
     private ClassHierarchy hierarchy;
 
+    /**
+     * Cache of dispatch results. As a dispatch may find no method,
+     * the cached results are wrapped in {@link Optional}.
+     */
+    private final Map<JClass, Map<Subsignature, Optional<JMethod>>> dispatchTable =
+            Maps.newConcurrentMap();
+
+    /**
+     * Cache of the callees of the call sites with the same call kind
+     * and method reference.
+     */
+    private final Map<CallKind, Map<MethodRef, Set<JMethod>>> resolveCache =
+            new EnumMap<>(CallKind.class);
+
+    /**
+     * @param parallel whether resolve the call sites in parallel
+     */
+    CHABuilder(boolean parallel) {
+        this.parallel = parallel;
+        for (CallKind kind : CallKind.values()) {
+            resolveCache.put(kind, Maps.newConcurrentMap());
+        }
+    }
+
     @Override
     public CallGraph<Invoke, JMethod> build() {
         hierarchy = World.get().getClassHierarchy();
-        return buildCallGraph(World.get().getMainMethod());
+        JMethod entry = World.get().getMainMethod();
+        return parallel ? buildCallGraphInParallel(entry) : buildCallGraph(entry);
     }
 
     private CallGraph<Invoke, JMethod> buildCallGraph(JMethod entry) {
         DefaultCallGraph callGraph = new DefaultCallGraph();
         callGraph.addEntryMethod(entry);
         // TODO - finish me
-        ArrayList<JMethod> workList = new ArrayList<>();
+        Queue<JMethod> workList = new ArrayDeque<>();
         workList.add(entry);
         while (!workList.isEmpty()) {
-            JMethod tmpMethod = workList.remove(0);
+            JMethod tmpMethod = workList.poll();
             if (!callGraph.contains(tmpMethod)) {
                 callGraph.addReachableMethod(tmpMethod);
                 callGraph.callSitesIn(tmpMethod).forEach(cs -> {
                     for (JMethod m : resolve(cs)) {
                         Edge<Invoke, JMethod> edge = new Edge<>(CallGraphs.getCallKind(cs), cs, m);
                         callGraph.addEdge(edge);
-                        workList.add(m);
+                        if (!callGraph.contains(m)) {
+                            workList.add(m);
+                        }
                     }
                 });
             }
@@ -65,16 +101,69 @@ class CHABuilder implements CGBuilder<Invoke, JMethod> {
         return callGraph;
     }
 
+    /**
+     * Builds the call graph level by level: the call sites of all methods
+     * in current frontier are resolved in parallel, then the resulting
+     * edges are added to the call graph in the order of the frontier, and
+     * the newly reached callees form the next frontier. As the call graph
+     * is only modified in the (sequential) merge step, the result
+     * (including the order of reachable methods and edges) is deterministic.
+     */
+    private CallGraph<Invoke, JMethod> buildCallGraphInParallel(JMethod entry) {
+        DefaultCallGraph callGraph = new DefaultCallGraph();
+        callGraph.addEntryMethod(entry);
+        List<JMethod> frontier = List.of(entry);
+        while (!frontier.isEmpty()) {
+            // IRs of the methods are also built in parallel here
+            List<List<Edge<Invoke, JMethod>>> edges = frontier.parallelStream()
+                    .map(this::resolveCallSitesIn)
+                    .toList();
+            Set<JMethod> next = new LinkedHashSet<>();
+            for (int i = 0; i < frontier.size(); ++i) {
+                callGraph.addReachableMethod(frontier.get(i));
+                for (Edge<Invoke, JMethod> edge : edges.get(i)) {
+                    callGraph.addEdge(edge);
+                    next.add(edge.getCallee());
+                }
+            }
+            next.removeIf(callGraph::contains);
+            frontier = List.copyOf(next);
+        }
+        return callGraph;
+    }
+
+    /**
+     * @return the call edges from the call sites in given method.
+     */
+    private List<Edge<Invoke, JMethod>> resolveCallSitesIn(JMethod method) {
+        List<Edge<Invoke, JMethod>> edges = new ArrayList<>();
+        if (!method.isAbstract()) {
+            method.getIR().forEach(stmt -> {
+                if (stmt instanceof Invoke cs) {
+                    for (JMethod m : resolve(cs)) {
+                        edges.add(new Edge<>(CallGraphs.getCallKind(cs), cs, m));
+                    }
+                }
+            });
+        }
+        return edges;
+    }
+
     /**
      * Resolves call targets (callees) of a call site via CHA.
      */
     private Set<JMethod> resolve(Invoke callSite) {
         // TODO - finish me
-        MethodRef methodRef = callSite.getMethodRef();
+        CallKind kind = CallGraphs.getCallKind(callSite);
+        return resolveCache.get(kind).computeIfAbsent(
+                callSite.getMethodRef(), ref -> resolve(ref, kind));
+    }
+
+    private Set<JMethod> resolve(MethodRef methodRef, CallKind kind) {
         Subsignature subsignature = methodRef.getSubsignature();
         JClass decClass = methodRef.getDeclaringClass();
-        Set<JMethod> result = new HashSet<JMethod>();
-        switch (CallGraphs.getCallKind(callSite)) {
+        Set<JMethod> result = new HashSet<>();
+        switch (kind) {
             case STATIC:
                 result.add(decClass.getDeclaredMethod(subsignature));
                 break;
@@ -83,24 +172,10 @@ class CHABuilder implements CGBuilder<Invoke, JMethod> {
                 break;
             case VIRTUAL:
             case INTERFACE:
-                ArrayList<JClass> subClass = new ArrayList<>();
-                subClass.add(decClass);
-                while (!subClass.isEmpty()) {
-                    JClass tmpClass = subClass.remove(0);
-                    if (tmpClass.isInterface()) {
-                        subClass.addAll(hierarchy.getDirectSubinterfacesOf(tmpClass));
-                        subClass.addAll(hierarchy.getDirectImplementorsOf(tmpClass));
-                        JMethod tmp = dispatch(tmpClass, subsignature);
-                        if (tmp != null) {
-                            result.add(tmp);
-                        }
-                    }
-                    else {
-                        subClass.addAll(hierarchy.getDirectSubclassesOf(tmpClass));
-                        JMethod tmp = dispatch(tmpClass, subsignature);
-                        if (tmp != null) {
-                            result.add(tmp);
-                        }
+                for (JClass subclass : hierarchy.getAllSubclassesOf(decClass)) {
+                    JMethod target = dispatch(subclass, subsignature);
+                    if (target != null) {
+                        result.add(target);
                     }
                 }
                 break;
@@ -116,14 +191,18 @@ class CHABuilder implements CGBuilder<Invoke, JMethod> {
      */
     private JMethod dispatch(JClass jclass, Subsignature subsignature) {
         // TODO - finish me
-        JMethod result = jclass.getDeclaredMethod(subsignature);
-        if (result != null && !result.isAbstract()) {
-            return result;
+        Map<Subsignature, Optional<JMethod>> table = dispatchTable
+                .computeIfAbsent(jclass, c -> Maps.newConcurrentMap());
+        Optional<JMethod> cached = table.get(subsignature);
+        if (cached != null) {
+            return cached.orElse(null);
         }
-        JClass supClass = jclass.getSuperClass();
-        if (supClass == null) {
-            return null;
+        JMethod result = jclass.getDeclaredMethod(subsignature);
+        if (result == null || result.isAbstract()) {
+            JClass supClass = jclass.getSuperClass();
+            result = supClass == null ? null : dispatch(supClass, subsignature);
         }
-        return dispatch(supClass, subsignature);
+        table.put(subsignature, Optional.ofNullable(result));
+        return result;
     }
 }
@@ -55,16 +55,33 @@ public class CallGraphBuilder extends ProgramAnalysis {
 
     @Override
     public CallGraph<Invoke, JMethod> analyze() {
+        String cacheDir = getOptions().getString("cache-dir");
+        CallGraphCache cache = cacheDir == null ? null
+                : new CallGraphCache(cacheDir, algorithm);
+        CallGraph<Invoke, JMethod> callGraph = cache == null ? null : cache.load();
+        if (callGraph == null) {
+            callGraph = buildCallGraph();
+            if (cache != null) {
+                cache.store(callGraph);
+            }
+        }
+        takeAction(callGraph);
+        return callGraph;
+    }
+
+    private CallGraph<Invoke, JMethod> buildCallGraph() {
         CGBuilder<Invoke, JMethod> builder;
         if (algorithm.equals("cha")) {
-            builder = new CHABuilder();
+            builder = new CHABuilder(
+                    getOptions().getBooleanOrDefault("parallel", false));
+        } else if (algorithm.equals("rta")) {
+            builder = new RTABuilder();
         } else {
             throw new ConfigException("Unknown call graph building algorithm: " + algorithm);
         }
         ClassHierarchyImpl.setCheckCHA(true);
         CallGraph<Invoke, JMethod> callGraph = builder.build();
         ClassHierarchyImpl.setCheckCHA(false);
-        takeAction(callGraph);
         return callGraph;
     }
 
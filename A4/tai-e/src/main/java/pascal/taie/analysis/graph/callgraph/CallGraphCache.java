@@ -0,0 +1,312 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.graph.callgraph;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import pascal.taie.World;
+import pascal.taie.config.Options;
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.language.classes.ClassHierarchy;
+import pascal.taie.language.classes.JClass;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.language.classes.StringReps;
+import pascal.taie.language.classes.Subsignature;
+import pascal.taie.util.AnalysisException;
+import pascal.taie.util.collection.Maps;
+
+import javax.annotation.Nullable;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * On-disk cache of call graphs.
+ * <p>
+ * A call graph is cached in a file whose name is the hash of the inputs
+ * that affect the call graph, i.e., the contents of the class path,
+ * the main class, the Java version, the call graph algorithm, and the
+ * versions of the cache format and of the call graph builders,
+ * thus a cached call graph is reused as long as its inputs are unchanged.
+ * The file is a compressed binary file that stores the signatures of
+ * the reachable methods, followed by the call edges of each reachable
+ * method, where a call site is represented by its index in the IR of
+ * its container method, and a callee by the index of its signature.
+ * The file is written to a temporary file first and then moved to its
+ * place atomically, so that runs sharing a cache directory never read
+ * a partially written file.
+ */
+final class CallGraphCache {
+
+    private static final Logger logger = LogManager.getLogger(CallGraphCache.class);
+
+    private static final int MAGIC = 0x54434743;
+
+    /**
+     * Version of the cache file format.
+     */
+    private static final int VERSION = 1;
+
+    /**
+     * Version of the implementations of the call graph builders.
+     * It must be increased when a change of a builder changes the call
+     * graphs it builds, so that the stale cached call graphs are not reused.
+     */
+    private static final int BUILDER_VERSION = 1;
+
+    private final Path file;
+
+    /**
+     * @param cacheDir  directory of the cache files
+     * @param algorithm call graph algorithm
+     */
+    CallGraphCache(String cacheDir, String algorithm) {
+        this.file = Path.of(cacheDir, "cg-" +
+                computeKey(World.get().getOptions(), algorithm) + ".bin");
+    }
+
+    /**
+     * @return the cached call graph, or null if the call graph
+     * has not been cached or the cache cannot be loaded.
+     */
+    @Nullable
+    CallGraph<Invoke, JMethod> load() {
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                new GZIPInputStream(Files.newInputStream(file))))) {
+            CallGraph<Invoke, JMethod> callGraph = read(in);
+            if (callGraph != null) {
+                logger.info("Loaded call graph from {}", file);
+            }
+            return callGraph;
+        } catch (IOException | RuntimeException e) {
+            // the cache file is corrupted, or it is inconsistent
+            // with the current program
+            logger.warn("Failed to load call graph from {}: {}", file, e);
+            return null;
+        }
+    }
+
+    @Nullable
+    private static CallGraph<Invoke, JMethod> read(DataInputStream in)
+            throws IOException {
+        if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+            logger.warn("Ignored call graph cache of unknown format");
+            return null;
+        }
+        ClassHierarchy hierarchy = World.get().getClassHierarchy();
+        // the methods are not pre-allocated by the count read from
+        // the file, so that a corrupted count cannot exhaust memory
+        List<JMethod> methods = new ArrayList<>();
+        for (int i = readCount(in); i > 0; --i) {
+            String signature = in.readUTF();
+            JMethod method = getMethod(hierarchy, signature);
+            if (method == null) {
+                logger.warn("Ignored call graph cache as {} is absent", signature);
+                return null;
+            }
+            methods.add(method);
+        }
+        DefaultCallGraph callGraph = new DefaultCallGraph();
+        for (int i = readCount(in); i > 0; --i) {
+            callGraph.addEntryMethod(methods.get(readIndex(in, methods.size())));
+        }
+        for (JMethod method : methods) {
+            callGraph.addReachableMethod(method);
+        }
+        for (JMethod caller : methods) {
+            for (int i = readCount(in); i > 0; --i) {
+                int index = in.readInt();
+                JMethod callee = methods.get(readIndex(in, methods.size()));
+                if (caller.isAbstract() || index < 0
+                        || index >= caller.getIR().getStmts().size()
+                        || !(caller.getIR().getStmt(index) instanceof Invoke callSite)) {
+                    logger.warn("Ignored call graph cache as call site {} of {}" +
+                            " is absent", index, caller);
+                    return null;
+                }
+                callGraph.addEdge(new Edge<>(
+                        CallGraphs.getCallKind(callSite), callSite, callee));
+            }
+        }
+        return callGraph;
+    }
+
+    /**
+     * Reads a count of items.
+     *
+     * @throws IOException if the count is negative.
+     */
+    private static int readCount(DataInputStream in) throws IOException {
+        int count = in.readInt();
+        if (count < 0) {
+            throw new IOException("Invalid count: " + count);
+        }
+        return count;
+    }
+
+    /**
+     * Reads an index of a list of given size.
+     *
+     * @throws IOException if the index is out of the bounds of the list.
+     */
+    private static int readIndex(DataInputStream in, int size) throws IOException {
+        int index = in.readInt();
+        if (index < 0 || index >= size) {
+            throw new IOException("Index " + index + " out of bounds for size " + size);
+        }
+        return index;
+    }
+
+    @Nullable
+    private static JMethod getMethod(ClassHierarchy hierarchy, String signature) {
+        JClass jclass = hierarchy.getClass(StringReps.getClassNameOf(signature));
+        return jclass == null ? null : jclass.getDeclaredMethod(
+                Subsignature.get(StringReps.getSubsignatureOf(signature)));
+    }
+
+    /**
+     * Stores given call graph in the cache. Failure of storing is
+     * reported as a warning, as it does not affect the analysis.
+     */
+    void store(CallGraph<Invoke, JMethod> callGraph) {
+        Path tmpFile = null;
+        try {
+            Files.createDirectories(file.getParent());
+            tmpFile = Files.createTempFile(file.getParent(),
+                    file.getFileName().toString(), ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                    new GZIPOutputStream(Files.newOutputStream(tmpFile))))) {
+                write(callGraph, out);
+            }
+            Files.move(tmpFile, file, StandardCopyOption.ATOMIC_MOVE);
+            logger.info("Stored call graph to {}", file);
+        } catch (IOException e) {
+            logger.warn("Failed to store call graph to {}: {}", file, e);
+            if (tmpFile != null) {
+                try {
+                    Files.deleteIfExists(tmpFile);
+                } catch (IOException ignored) {
+                }
+            }
+        }
+    }
+
+    private static void write(CallGraph<Invoke, JMethod> callGraph,
+                              DataOutputStream out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        List<JMethod> methods = callGraph.reachableMethods().toList();
+        Map<JMethod, Integer> indexes = Maps.newMap(methods.size());
+        out.writeInt(methods.size());
+        for (JMethod method : methods) {
+            indexes.put(method, indexes.size());
+            out.writeUTF(method.getSignature());
+        }
+        List<JMethod> entries = callGraph.entryMethods().toList();
+        out.writeInt(entries.size());
+        for (JMethod entry : entries) {
+            out.writeInt(indexes.get(entry));
+        }
+        for (JMethod caller : methods) {
+            List<Edge<Invoke, JMethod>> edges = callGraph.callSitesIn(caller)
+                    .flatMap(callGraph::edgesOutOf)
+                    .filter(edge -> indexes.containsKey(edge.getCallee()))
+                    .toList();
+            out.writeInt(edges.size());
+            for (Edge<Invoke, JMethod> edge : edges) {
+                out.writeInt(edge.getCallSite().getIndex());
+                out.writeInt(indexes.get(edge.getCallee()));
+            }
+        }
+    }
+
+    /**
+     * @return the hash of the inputs that affect the call graph.
+     */
+    private static String computeKey(Options options, String algorithm) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            update(digest, Integer.toString(VERSION));
+            update(digest, Integer.toString(BUILDER_VERSION));
+            update(digest, algorithm);
+            update(digest, options.getMainClass());
+            update(digest, Integer.toString(options.getJavaVersion()));
+            update(digest, Boolean.toString(options.isPrependJVM()));
+            if (options.isPrependJVM()) {
+                update(digest, System.getProperty("java.version"));
+            }
+            String classPath = options.getClassPath();
+            if (classPath != null) {
+                for (String entry : classPath.split(File.pathSeparator)) {
+                    updateWithPath(digest, Path.of(entry));
+                }
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException | IOException e) {
+            throw new AnalysisException("Failed to compute key of call graph cache", e);
+        }
+    }
+
+    /**
+     * Updates digest with the names and contents of the files in given path.
+     */
+    private static void updateWithPath(MessageDigest digest, Path path)
+            throws IOException {
+        update(digest, path.toString());
+        if (Files.isDirectory(path)) {
+            try (Stream<Path> files = Files.walk(path)) {
+                for (Path file : files.filter(Files::isRegularFile).sorted().toList()) {
+                    update(digest, path.relativize(file).toString());
+                    digest.update(Files.readAllBytes(file));
+                }
+            }
+        } else if (Files.isRegularFile(path)) {
+            digest.update(Files.readAllBytes(path));
+        }
+    }
+
+    private static void update(MessageDigest digest, String s) {
+        digest.update(String.valueOf(s).getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+    }
+}
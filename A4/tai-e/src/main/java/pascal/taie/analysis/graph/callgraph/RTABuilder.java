@@ -0,0 +1,170 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.graph.callgraph;
+
+import pascal.taie.World;
+import pascal.taie.ir.exp.NewInstance;
+import pascal.taie.ir.proginfo.MethodRef;
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.ir.stmt.New;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.language.classes.ClassHierarchy;
+import pascal.taie.language.classes.JClass;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.language.classes.Subsignature;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.MultiMap;
+import pascal.taie.util.collection.Sets;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.Set;
+
+/**
+ * Implementation of the RTA (Rapid Type Analysis) algorithm.
+ * <p>
+ * Different from CHA, which regards all subclasses of the declaring class
+ * of a virtual call as possible receiver types, RTA only considers the
+ * classes instantiated (by {@link New} statements) in reachable methods.
+ * When a class becomes instantiated, the virtual call sites
+ * that are already reachable are re-resolved for the class.
+ */
+class RTABuilder implements CGBuilder<Invoke, JMethod> {
+
+    private ClassHierarchy hierarchy;
+
+    private DefaultCallGraph callGraph;
+
+    private Queue<JMethod> workList;
+
+    /**
+     * Classes instantiated in reachable methods.
+     */
+    private final Set<JClass> instantiatedClasses = Sets.newSet();
+
+    /**
+     * Virtual and interface call sites in reachable methods, grouped by
+     * the declaring classes of their method references.
+     */
+    private final MultiMap<JClass, Invoke> virtualCallSites = Maps.newMultiMap();
+
+    @Override
+    public CallGraph<Invoke, JMethod> build() {
+        hierarchy = World.get().getClassHierarchy();
+        JMethod entry = World.get().getMainMethod();
+        callGraph = new DefaultCallGraph();
+        callGraph.addEntryMethod(entry);
+        workList = new ArrayDeque<>();
+        workList.add(entry);
+        while (!workList.isEmpty()) {
+            JMethod method = workList.poll();
+            if (callGraph.addReachableMethod(method) && !method.isAbstract()) {
+                for (Stmt stmt : method.getIR()) {
+                    if (stmt instanceof New newStmt
+                            && newStmt.getRValue() instanceof NewInstance newInstance) {
+                        instantiate(newInstance.getType().getJClass());
+                    } else if (stmt instanceof Invoke callSite) {
+                        processCallSite(callSite);
+                    }
+                }
+            }
+        }
+        return callGraph;
+    }
+
+    /**
+     * Resolves the targets of a newly reachable call site.
+     */
+    private void processCallSite(Invoke callSite) {
+        MethodRef methodRef = callSite.getMethodRef();
+        Subsignature subsignature = methodRef.getSubsignature();
+        JClass decClass = methodRef.getDeclaringClass();
+        switch (CallGraphs.getCallKind(callSite)) {
+            case STATIC -> addEdge(callSite,
+                    decClass.getDeclaredMethod(subsignature));
+            case SPECIAL -> addEdge(callSite, dispatch(decClass, subsignature));
+            case VIRTUAL, INTERFACE -> {
+                virtualCallSites.put(decClass, callSite);
+                for (JClass subclass : hierarchy.getAllSubclassesOf(decClass)) {
+                    if (instantiatedClasses.contains(subclass)) {
+                        addEdge(callSite, dispatch(subclass, subsignature));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Marks given class as instantiated, and resolves the reachable
+     * virtual call sites whose receivers may be the new instances.
+     */
+    private void instantiate(JClass jclass) {
+        if (jclass == null || !instantiatedClasses.add(jclass)) {
+            return;
+        }
+        // visits the declaring classes of the call sites which
+        // may be dispatched to jclass, i.e., all superclasses
+        // and superinterfaces of jclass
+        Set<JClass> visited = Sets.newSet();
+        Queue<JClass> supertypes = new ArrayDeque<>();
+        supertypes.add(jclass);
+        while (!supertypes.isEmpty()) {
+            JClass supertype = supertypes.poll();
+            if (!visited.add(supertype)) {
+                continue;
+            }
+            for (Invoke callSite : virtualCallSites.get(supertype)) {
+                addEdge(callSite, dispatch(jclass,
+                        callSite.getMethodRef().getSubsignature()));
+            }
+            if (supertype.getSuperClass() != null) {
+                supertypes.add(supertype.getSuperClass());
+            }
+            supertypes.addAll(supertype.getInterfaces());
+        }
+    }
+
+    private void addEdge(Invoke callSite, JMethod callee) {
+        if (callee != null && callGraph.addEdge(new Edge<>(
+                CallGraphs.getCallKind(callSite), callSite, callee))
+                && !callGraph.contains(callee)) {
+            workList.add(callee);
+        }
+    }
+
+    /**
+     * Looks up the target method based on given class and method subsignature.
+     *
+     * @return the dispatched target method, or null if no satisfying method
+     * can be found.
+     */
+    private static JMethod dispatch(JClass jclass, Subsignature subsignature) {
+        for (JClass c = jclass; c != null; c = c.getSuperClass()) {
+            JMethod method = c.getDeclaredMethod(subsignature);
+            if (method != null && !method.isAbstract()) {
+                return method;
+            }
+        }
+        return null;
+    }
+}
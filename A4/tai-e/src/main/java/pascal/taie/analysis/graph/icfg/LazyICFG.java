@@ -0,0 +1,329 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.graph.icfg;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import pascal.taie.analysis.graph.callgraph.CallGraph;
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.analysis.graph.cfg.CFGBuilder;
+import pascal.taie.analysis.graph.cfg.Edge;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.ir.stmt.Return;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.language.type.ClassType;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.MultiMap;
+import pascal.taie.util.collection.Sets;
+import pascal.taie.util.collection.Views;
+
+import javax.annotation.Nullable;
+import java.lang.ref.SoftReference;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * ICFG which is built on demand.
+ * <p>
+ * Different from the ICFG built by {@link ICFGBuilder}, which creates
+ * the edges of all reachable methods up front, this ICFG creates the
+ * edges of a method (including the call and return edges that connect
+ * it to its callers and callees) when any of them is first queried.
+ * The edges of each method are only softly reachable, so that they are
+ * released under memory pressure, and are re-created if queried again.
+ * As {@link ICFGEdge}s are compared by their types, sources and targets,
+ * the re-created edges are equal to the released ones.
+ */
+public class LazyICFG implements ICFG<JMethod, Stmt> {
+
+    private static final Logger logger = LogManager.getLogger(LazyICFG.class);
+
+    private final CallGraph<Invoke, JMethod> callGraph;
+
+    /**
+     * Edges of each method whose edges have been queried.
+     */
+    private final Map<JMethod, SoftReference<MethodEdges>> methodEdges = Maps.newMap();
+
+    /**
+     * Containing method of each node whose method has been visited.
+     */
+    private final Map<Stmt, JMethod> containers = Maps.newMap();
+
+    /**
+     * Whether the nodes of all reachable methods have been visited.
+     */
+    private boolean allVisited = false;
+
+    /**
+     * Nodes of all reachable methods, collected on first query.
+     */
+    private Set<Stmt> nodes;
+
+    /**
+     * Number of the nodes of all reachable methods, or -1 if not counted yet.
+     */
+    private int nodeCount = -1;
+
+    public LazyICFG(CallGraph<Invoke, JMethod> callGraph) {
+        this.callGraph = callGraph;
+    }
+
+    @Override
+    public Stream<JMethod> entryMethods() {
+        return callGraph.entryMethods();
+    }
+
+    @Override
+    public Set<ICFGEdge<Stmt>> getInEdgesOf(Stmt stmt) {
+        MethodEdges edges = getEdgesOf(getContainingMethodOf(stmt));
+        return edges == null ? Set.of() : edges.inEdges.get(stmt);
+    }
+
+    @Override
+    public Set<ICFGEdge<Stmt>> getOutEdgesOf(Stmt stmt) {
+        MethodEdges edges = getEdgesOf(getContainingMethodOf(stmt));
+        return edges == null ? Set.of() : edges.outEdges.get(stmt);
+    }
+
+    @Override
+    public Set<JMethod> getCalleesOf(Stmt callSite) {
+        return callSite instanceof Invoke invoke ?
+                callGraph.getCalleesOf(invoke) : Set.of();
+    }
+
+    @Override
+    public Set<Stmt> getReturnSitesOf(Stmt callSite) {
+        assert isCallSite(callSite);
+        return getCFGOf(getContainingMethodOf(callSite)).getSuccsOf(callSite);
+    }
+
+    @Override
+    public Stmt getEntryOf(JMethod method) {
+        return getCFGOf(method).getEntry();
+    }
+
+    @Override
+    public Stmt getExitOf(JMethod method) {
+        return getCFGOf(method).getExit();
+    }
+
+    @Override
+    public Set<Stmt> getCallersOf(JMethod method) {
+        return Collections.unmodifiableSet(callGraph.getCallersOf(method));
+    }
+
+    @Override
+    public JMethod getContainingMethodOf(Stmt stmt) {
+        if (stmt instanceof Invoke invoke) {
+            return invoke.getContainer();
+        }
+        JMethod method = containers.get(stmt);
+        if (method == null && !allVisited) {
+            visitAllMethods();
+            method = containers.get(stmt);
+        }
+        return method;
+    }
+
+    @Override
+    public boolean isCallSite(Stmt stmt) {
+        return stmt instanceof Invoke;
+    }
+
+    @Override
+    public boolean hasNode(Stmt stmt) {
+        return getContainingMethodOf(stmt) != null;
+    }
+
+    @Override
+    public boolean hasEdge(Stmt source, Stmt target) {
+        return getOutEdgesOf(source)
+                .stream()
+                .anyMatch(edge -> edge.getTarget().equals(target));
+    }
+
+    @Override
+    public Set<Stmt> getPredsOf(Stmt stmt) {
+        return Views.toMappedSet(getInEdgesOf(stmt), ICFGEdge::getSource);
+    }
+
+    @Override
+    public Set<Stmt> getSuccsOf(Stmt stmt) {
+        return Views.toMappedSet(getOutEdgesOf(stmt), ICFGEdge::getTarget);
+    }
+
+    /**
+     * Collects the nodes of all reachable methods. Note that this
+     * does not create any edges. As the reachable methods never change,
+     * the nodes are collected only once.
+     */
+    @Override
+    public Set<Stmt> getNodes() {
+        if (nodes == null) {
+            Set<Stmt> set = new LinkedHashSet<>();
+            forEach(set::add);
+            nodes = Collections.unmodifiableSet(set);
+        }
+        return nodes;
+    }
+
+    /**
+     * Iterates over the nodes of the reachable methods one method after
+     * another, without collecting them into a set.
+     */
+    @Override
+    public Iterator<Stmt> iterator() {
+        return callGraph.reachableMethods()
+                .map(this::getCFGOf)
+                .filter(Objects::nonNull)
+                .flatMap(cfg -> cfg.getNodes().stream())
+                .iterator();
+    }
+
+    @Override
+    public int getNumberOfNodes() {
+        if (nodeCount < 0) {
+            nodeCount = callGraph.reachableMethods()
+                    .map(this::getCFGOf)
+                    .filter(Objects::nonNull)
+                    .mapToInt(CFG::getNumberOfNodes)
+                    .sum();
+        }
+        return nodeCount;
+    }
+
+    /**
+     * @return the CFG of given method, or null if the method has no CFG.
+     */
+    @Nullable
+    private CFG<Stmt> getCFGOf(JMethod method) {
+        if (method.isAbstract()) {
+            return null;
+        }
+        CFG<Stmt> cfg = method.getIR().getResult(CFGBuilder.ID);
+        if (cfg != null && !containers.containsKey(cfg.getEntry())) {
+            cfg.forEach(node -> containers.put(node, method));
+        }
+        return cfg;
+    }
+
+    private void visitAllMethods() {
+        callGraph.reachableMethods().forEach(this::getCFGOf);
+        allVisited = true;
+    }
+
+    /**
+     * @return the edges of given method, or null if the method has no CFG.
+     */
+    @Nullable
+    private MethodEdges getEdgesOf(@Nullable JMethod method) {
+        if (method == null) {
+            return null;
+        }
+        SoftReference<MethodEdges> ref = methodEdges.get(method);
+        MethodEdges edges = ref == null ? null : ref.get();
+        if (edges == null) {
+            CFG<Stmt> cfg = getCFGOf(method);
+            if (cfg == null) {
+                logger.warn("CFG of {} is absent", method);
+                return null;
+            }
+            edges = new MethodEdges(cfg);
+            methodEdges.put(method, new SoftReference<>(edges));
+        }
+        return edges;
+    }
+
+    /**
+     * The edges whose sources or targets are in a method.
+     */
+    private class MethodEdges {
+
+        private final MultiMap<Stmt, ICFGEdge<Stmt>> inEdges = Maps.newMultiMap();
+
+        private final MultiMap<Stmt, ICFGEdge<Stmt>> outEdges = Maps.newMultiMap();
+
+        private MethodEdges(CFG<Stmt> cfg) {
+            JMethod method = cfg.getMethod();
+            for (Stmt stmt : cfg) {
+                for (Edge<Stmt> edge : cfg.getOutEdgesOf(stmt)) {
+                    ICFGEdge<Stmt> local = isCallSite(stmt) ?
+                            new CallToReturnEdge<>(edge) : new NormalEdge<>(edge);
+                    outEdges.put(stmt, local);
+                    inEdges.put(edge.getTarget(), local);
+                }
+                if (isCallSite(stmt)) {
+                    // call edges to and return edges from the callees
+                    for (JMethod callee : getCalleesOf(stmt)) {
+                        CFG<Stmt> calleeCFG = getCFGOf(callee);
+                        if (calleeCFG != null) {
+                            outEdges.put(stmt, new CallEdge<>(
+                                    stmt, calleeCFG.getEntry(), callee));
+                            for (Stmt retSite : cfg.getSuccsOf(stmt)) {
+                                inEdges.put(retSite, newReturnEdge(
+                                        calleeCFG, retSite, stmt));
+                            }
+                        }
+                    }
+                }
+            }
+            // call edges from and return edges to the callers
+            for (Stmt callSite : getCallersOf(method)) {
+                CFG<Stmt> callerCFG = getCFGOf(getContainingMethodOf(callSite));
+                if (callerCFG != null) {
+                    inEdges.put(cfg.getEntry(), new CallEdge<>(
+                            callSite, cfg.getEntry(), method));
+                    for (Stmt retSite : callerCFG.getSuccsOf(callSite)) {
+                        outEdges.put(cfg.getExit(), newReturnEdge(
+                                cfg, retSite, callSite));
+                    }
+                }
+            }
+        }
+
+        private static ReturnEdge<Stmt> newReturnEdge(
+                CFG<Stmt> calleeCFG, Stmt retSite, Stmt callSite) {
+            Set<Var> retVars = Sets.newHybridSet();
+            Set<ClassType> exceptions = Sets.newHybridSet();
+            Stmt exit = calleeCFG.getExit();
+            for (Edge<Stmt> edge : calleeCFG.getInEdgesOf(exit)) {
+                if (edge.getSource() instanceof Return ret
+                        && ret.getValue() != null) {
+                    retVars.add(ret.getValue());
+                }
+                if (edge.isExceptional()) {
+                    exceptions.addAll(edge.getExceptions());
+                }
+            }
+            return new ReturnEdge<>(exit, retSite, callSite, retVars, exceptions);
+        }
+    }
+}
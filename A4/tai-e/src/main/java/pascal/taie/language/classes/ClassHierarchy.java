@@ -75,6 +75,20 @@ public interface ClassHierarchy {
      */
     Collection<JClass> getDirectSubclassesOf(JClass jclass);
 
+    /**
+     * @return true if {@code subclass} is {@code superclass} or a direct
+     * or indirect subclass (or subinterface, or implementor) of
+     * {@code superclass}, otherwise false.
+     */
+    boolean isSubclass(JClass superclass, JClass subclass);
+
+    /**
+     * @return all subclasses (subinterfaces and implementors for interface)
+     * of given class, including the class itself. Concrete subtypes can
+     * be obtained by filtering out abstract classes and interfaces.
+     */
+    Collection<JClass> getAllSubclassesOf(JClass jclass);
+
     /**
      * Obtains a JRE class by it name.
      *
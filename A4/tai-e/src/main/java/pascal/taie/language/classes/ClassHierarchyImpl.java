@@ -28,15 +28,26 @@ import pascal.taie.ir.proginfo.MethodRef;
 import pascal.taie.util.AnalysisException;
 
 import javax.annotation.Nullable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import static pascal.taie.util.collection.Maps.newConcurrentMap;
 import static pascal.taie.util.collection.Maps.newMap;
 import static pascal.taie.util.collection.Maps.newSmallMap;
 import static pascal.taie.util.collection.Sets.newHybridSet;
+import static pascal.taie.util.collection.Sets.newSet;
 
 public class ClassHierarchyImpl implements ClassHierarchy {
 
@@ -65,6 +76,12 @@ public class ClassHierarchyImpl implements ClassHierarchy {
      */
     private final Map<JClass, Set<JClass>> directSubclasses = newMap();
 
+    /**
+     * Index of transitive subclasses, built on first query and
+     * discarded when a new class is added.
+     */
+    private volatile SubclassIndex subclassIndex;
+
     @Override
     public void setDefaultClassLoader(JClassLoader loader) {
         this.defaultLoader = loader;
@@ -97,6 +114,7 @@ public class ClassHierarchyImpl implements ClassHierarchy {
 
     @Override
     public void addClass(JClass jclass) {
+        subclassIndex = null;
         // Add direct subinterface
         if (jclass.isInterface()) {
             jclass.getInterfaces().forEach(iface ->
@@ -160,6 +178,195 @@ public class ClassHierarchyImpl implements ClassHierarchy {
         return directSubclasses.getOrDefault(jclass, Set.of());
     }
 
+    @Override
+    public boolean isSubclass(JClass superclass, JClass subclass) {
+        return superclass == subclass ||
+                getSubclassIndex().isSubclass(superclass, subclass);
+    }
+
+    @Override
+    public Collection<JClass> getAllSubclassesOf(JClass jclass) {
+        return getSubclassIndex().getAllSubclassesOf(jclass);
+    }
+
+    private SubclassIndex getSubclassIndex() {
+        SubclassIndex index = subclassIndex;
+        if (index == null) {
+            synchronized (this) {
+                index = subclassIndex;
+                if (index == null) {
+                    subclassIndex = index = new SubclassIndex();
+                }
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Walks the direct subclasses, subinterfaces and implementors
+     * from given class. This is only used for the classes that are
+     * not covered by {@link SubclassIndex}.
+     */
+    private List<JClass> walkSubclassesOf(JClass jclass) {
+        List<JClass> result = new ArrayList<>();
+        Set<JClass> visited = newSet();
+        Queue<JClass> workList = new ArrayDeque<>();
+        workList.add(jclass);
+        while (!workList.isEmpty()) {
+            JClass c = workList.poll();
+            if (visited.add(c)) {
+                result.add(c);
+                if (c.isInterface()) {
+                    workList.addAll(getDirectSubinterfacesOf(c));
+                    workList.addAll(getDirectImplementorsOf(c));
+                } else {
+                    workList.addAll(getDirectSubclassesOf(c));
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Compact index of transitive subclasses.
+     * <p>
+     * The (non-interface) classes form a tree rooted at java.lang.Object
+     * (given by {@link #directSubclasses}), and they are numbered in
+     * pre-order of a depth-first search over the tree, so that the subclasses of each class occupy a contiguous
+     * interval of numbers, and subclass check of classes is an interval
+     * check. The interfaces are numbered after the classes, and the
+     * subtypes of each interface are represented by a {@link BitSet}
+     * over the numbers, which is computed on first query of the interface
+     * by setting the intervals of all (direct) implementors of
+     * the interface and its subinterfaces.
+     */
+    private class SubclassIndex {
+
+        /**
+         * Classes in pre-order, followed by interfaces.
+         */
+        private final List<JClass> types = new ArrayList<>();
+
+        private final Map<JClass, Integer> numbers = newMap();
+
+        /**
+         * For each class, the largest number in the subtree rooted
+         * by the class.
+         */
+        private final int[] lasts;
+
+        private final Map<JClass, BitSet> interfaceSubtypes = newConcurrentMap();
+
+        private SubclassIndex() {
+            // besides the loaded classes, the index covers the classes
+            // that are only recorded by the direct subclass (subinterface
+            // and implementor) maps, so that it agrees with the maps
+            Set<JClass> all = new LinkedHashSet<>();
+            allClasses().forEach(all::add);
+            all.addAll(directSubclasses.keySet());
+            directSubclasses.values().forEach(all::addAll);
+            all.addAll(directSubinterfaces.keySet());
+            directSubinterfaces.values().forEach(all::addAll);
+            all.addAll(directImplementors.keySet());
+            directImplementors.values().forEach(all::addAll);
+            List<JClass> classes = all.stream()
+                    .filter(c -> !c.isInterface())
+                    .toList();
+            Set<JClass> nonRoots = newSet();
+            directSubclasses.values().forEach(nonRoots::addAll);
+            lasts = new int[classes.size()];
+            Deque<JClass> stack = new ArrayDeque<>();
+            Deque<Iterator<JClass>> iterators = new ArrayDeque<>();
+            for (JClass root : classes) {
+                if (nonRoots.contains(root)) {
+                    continue;
+                }
+                number(root, stack, iterators);
+                while (!stack.isEmpty()) {
+                    Iterator<JClass> it = iterators.peek();
+                    if (it.hasNext()) {
+                        number(it.next(), stack, iterators);
+                    } else {
+                        lasts[numbers.get(stack.pop())] = types.size() - 1;
+                        iterators.pop();
+                    }
+                }
+            }
+            all.stream().filter(JClass::isInterface).forEach(iface -> {
+                numbers.put(iface, types.size());
+                types.add(iface);
+            });
+        }
+
+        private void number(JClass jclass, Deque<JClass> stack,
+                            Deque<Iterator<JClass>> iterators) {
+            numbers.put(jclass, types.size());
+            types.add(jclass);
+            stack.push(jclass);
+            iterators.push(getDirectSubclassesOf(jclass).iterator());
+        }
+
+        private boolean isSubclass(JClass superclass, JClass subclass) {
+            Integer sup = numbers.get(superclass);
+            Integer sub = numbers.get(subclass);
+            if (sup == null || sub == null) {
+                return walkSubclassesOf(superclass).contains(subclass);
+            }
+            if (superclass.isInterface()) {
+                return getInterfaceSubtypes(superclass).get(sub);
+            } else if (subclass.isInterface()) {
+                return superclass.getName().equals(ClassNames.OBJECT);
+            } else {
+                return sup <= sub && sub <= lasts[sup];
+            }
+        }
+
+        private Collection<JClass> getAllSubclassesOf(JClass jclass) {
+            Integer number = numbers.get(jclass);
+            if (number == null) {
+                return walkSubclassesOf(jclass);
+            }
+            if (jclass.isInterface()) {
+                BitSet subtypes = getInterfaceSubtypes(jclass);
+                List<JClass> result = new ArrayList<>(subtypes.cardinality());
+                subtypes.stream().forEach(i -> result.add(types.get(i)));
+                return result;
+            } else {
+                return Collections.unmodifiableList(
+                        types.subList(number, lasts[number] + 1));
+            }
+        }
+
+        private BitSet getInterfaceSubtypes(JClass iface) {
+            return interfaceSubtypes.computeIfAbsent(iface, this::computeSubtypes);
+        }
+
+        private BitSet computeSubtypes(JClass iface) {
+            BitSet subtypes = new BitSet(types.size());
+            Set<JClass> visited = newSet();
+            Queue<JClass> workList = new ArrayDeque<>();
+            workList.add(iface);
+            while (!workList.isEmpty()) {
+                JClass i = workList.poll();
+                if (!visited.add(i)) {
+                    continue;
+                }
+                Integer number = numbers.get(i);
+                if (number != null) {
+                    subtypes.set(number);
+                }
+                workList.addAll(getDirectSubinterfacesOf(i));
+                for (JClass implementor : getDirectImplementorsOf(i)) {
+                    Integer n = numbers.get(implementor);
+                    if (n != null) {
+                        subtypes.set(n, lasts[n] + 1);
+                    }
+                }
+            }
+            return subtypes;
+        }
+    }
+
     private static boolean checkCHA = false;
 
     public static void setCheckCHA(boolean checkCHA) {
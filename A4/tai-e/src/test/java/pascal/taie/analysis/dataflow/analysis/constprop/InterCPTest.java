@@ -22,9 +22,12 @@
 
 package pascal.taie.analysis.dataflow.analysis.constprop;
 
+import org.junit.Assert;
 import org.junit.Test;
+import pascal.taie.World;
 import pascal.taie.analysis.Tests;
 import pascal.taie.analysis.dataflow.inter.InterConstantPropagation;
+import pascal.taie.analysis.graph.icfg.ICFGBuilder;
 
 public class InterCPTest {
 
@@ -38,6 +41,18 @@ public class InterCPTest {
         );
     }
 
+    void testPrioritized(String inputClass) {
+        Tests.test(inputClass, CLASS_PATH, InterConstantPropagation.ID,
+                "edge-refine:false;alias-aware:false;solver:priority",
+                "-a", "cg=algorithm:cha");
+    }
+
+    void testSummary(String inputClass) {
+        Tests.test(inputClass, CLASS_PATH, InterConstantPropagation.ID,
+                "edge-refine:false;alias-aware:false;summary:true",
+                "-a", "cg=algorithm:cha");
+    }
+
     @Test
     public void testExample() {
         test("Example");
@@ -57,4 +72,32 @@ public class InterCPTest {
     public void testMultiIntArgs() {
         test("MultiIntArgs");
     }
+
+    @Test
+    public void testPrioritizedFibonacci() {
+        testPrioritized("Fibonacci");
+    }
+
+    @Test
+    public void testLazyICFGExample() {
+        Tests.test("Example", CLASS_PATH, InterConstantPropagation.ID,
+                "edge-refine:false;alias-aware:false;lazy-icfg:true",
+                "-a", "cg=algorithm:cha");
+        // the full ICFG is not required, thus never built
+        Assert.assertNull(World.get().getResult(ICFGBuilder.ID));
+    }
+
+    @Test
+    public void testSummaryReference() {
+        // results of the callees returning void or non-int values
+        // are the same as those of the ICFG-based analysis
+        testSummary("Reference");
+    }
+
+    @Test
+    public void testSummaryCalls() {
+        // contexts of addOne() are not merged, and print() is
+        // analyzed although it returns void
+        testSummary("SummaryCalls");
+    }
 }
@@ -22,15 +22,41 @@
 
 package pascal.taie.analysis.graph.callgraph.cha;
 
+import org.junit.Assert;
 import org.junit.Test;
 import pascal.taie.analysis.Tests;
 
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
 public class CHATest {
     
     protected static void test(String main) {
         Tests.test(main, "src/test/resources/cha/", "cg", "algorithm:cha");
     }
 
+    protected static void testParallel(String main) {
+        Tests.test(main, "src/test/resources/cha/", "cg", "algorithm:cha;parallel:true");
+    }
+
+    /**
+     * RTA gives the same results as CHA on the programs without
+     * virtual calls, thus such programs share the expected results of CHA,
+     * while the programs with virtual calls have their own expected results.
+     */
+    protected static void testRTA(String main) {
+        Tests.test(main, "src/test/resources/cha/", "cg", "algorithm:rta");
+    }
+
     @Test
     public void testStaticCall() {
         test("StaticCall");
@@ -50,4 +76,89 @@ public class CHATest {
     public void testAbstractMethod() {
         test("AbstractMethod");
     }
+
+    @Test
+    public void testParallelInterface() {
+        testParallel("Interface");
+    }
+
+    @Test
+    public void testCachedVirtualCall() throws IOException {
+        Path cacheDir = Path.of("output", "cg-cache");
+        deleteDirectory(cacheDir);
+        String opts = "algorithm:cha;cache-dir:" + cacheDir;
+        // the first run builds the call graph and stores it in the cache
+        Tests.test("VirtualCall", "src/test/resources/cha/", "cg", opts);
+        List<Path> cacheFiles = listFiles(cacheDir);
+        Assert.assertEquals(1, cacheFiles.size());
+        FileTime storeTime = FileTime.fromMillis(0);
+        Files.setLastModifiedTime(cacheFiles.get(0), storeTime);
+        // the second run loads the cached call graph, thus it neither
+        // stores a new cache file nor rewrites the existing one
+        Tests.test("VirtualCall", "src/test/resources/cha/", "cg", opts);
+        Assert.assertEquals(cacheFiles, listFiles(cacheDir));
+        Assert.assertEquals(storeTime,
+                Files.getLastModifiedTime(cacheFiles.get(0)));
+    }
+
+    @Test
+    public void testCorruptedCache() throws IOException {
+        Path cacheDir = Path.of("output", "cg-cache");
+        deleteDirectory(cacheDir);
+        String opts = "algorithm:cha;cache-dir:" + cacheDir;
+        Tests.test("VirtualCall", "src/test/resources/cha/", "cg", opts);
+        List<Path> cacheFiles = listFiles(cacheDir);
+        Assert.assertEquals(1, cacheFiles.size());
+        Path cacheFile = cacheFiles.get(0);
+        // keep the header (magic number and version) of the cache file,
+        // and corrupt the count of the methods
+        int magic, version;
+        try (DataInputStream in = new DataInputStream(
+                new GZIPInputStream(Files.newInputStream(cacheFile)))) {
+            magic = in.readInt();
+            version = in.readInt();
+        }
+        try (DataOutputStream out = new DataOutputStream(
+                new GZIPOutputStream(Files.newOutputStream(cacheFile)))) {
+            out.writeInt(magic);
+            out.writeInt(version);
+            out.writeInt(-1);
+        }
+        long corruptedSize = Files.size(cacheFile);
+        // the corrupted cache is ignored, thus the call graph is rebuilt
+        // and the cache file is replaced without leaving temporary files
+        Tests.test("VirtualCall", "src/test/resources/cha/", "cg", opts);
+        Assert.assertEquals(cacheFiles, listFiles(cacheDir));
+        Assert.assertNotEquals(corruptedSize, Files.size(cacheFile));
+    }
+
+    private static List<Path> listFiles(Path dir) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.toList();
+        }
+    }
+
+    private static void deleteDirectory(Path dir) throws IOException {
+        if (Files.exists(dir)) {
+            try (Stream<Path> files = Files.walk(dir)) {
+                for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                    Files.delete(file);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testRTAStaticCall() {
+        testRTA("StaticCall");
+    }
+
+    /**
+     * RTA only dispatches the virtual call to the instantiated classes,
+     * including the class instantiated after the call site is reached.
+     */
+    @Test
+    public void testRTAVirtualCall() {
+        testRTA("RTAVirtualCall");
+    }
 }
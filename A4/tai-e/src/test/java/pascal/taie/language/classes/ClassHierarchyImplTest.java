@@ -0,0 +1,312 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.language.classes;
+
+import org.junit.Assert;
+import org.junit.Test;
+import pascal.taie.language.annotation.AnnotationHolder;
+import pascal.taie.language.type.ClassType;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+
+/**
+ * Tests the subclass index of {@link ClassHierarchyImpl} by comparing
+ * its results with a walk of the direct subclass (subinterface and
+ * implementor) maps of the class hierarchy.
+ */
+public class ClassHierarchyImplTest {
+
+    /**
+     * A class loader which gives the classes created by the test.
+     */
+    private static class TestClassLoader implements JClassLoader {
+
+        private final Map<String, JClass> classes = new LinkedHashMap<>();
+
+        @Override
+        public JClass loadClass(String name) {
+            return classes.get(name);
+        }
+
+        @Override
+        public Collection<JClass> getLoadedClasses() {
+            return classes.values();
+        }
+    }
+
+    private record TestClassBuilder(String name, Set<Modifier> modifiers,
+                                    JClass superClass, List<JClass> interfaces)
+            implements JClassBuilder {
+
+        @Override
+        public void build(JClass jclass) {
+            jclass.build(this);
+        }
+
+        @Override
+        public Set<Modifier> getModifiers() {
+            return modifiers;
+        }
+
+        @Override
+        public String getSimpleName() {
+            return name;
+        }
+
+        @Override
+        public ClassType getClassType() {
+            return null;
+        }
+
+        @Override
+        public JClass getSuperClass() {
+            return superClass;
+        }
+
+        @Override
+        public Collection<JClass> getInterfaces() {
+            return interfaces;
+        }
+
+        @Override
+        public JClass getOuterClass() {
+            return null;
+        }
+
+        @Override
+        public Collection<JField> getDeclaredFields() {
+            return List.of();
+        }
+
+        @Override
+        public Collection<JMethod> getDeclaredMethods() {
+            return List.of();
+        }
+
+        @Override
+        public AnnotationHolder getAnnotationHolder() {
+            return AnnotationHolder.emptyHolder();
+        }
+
+        @Override
+        public boolean isApplication() {
+            return true;
+        }
+    }
+
+    private final TestClassLoader loader;
+
+    private final ClassHierarchyImpl hierarchy;
+
+    private final JClass object;
+
+    /**
+     * Creates the class hierarchy:
+     * <pre>
+     * interface I; interface J extends I; interface K;
+     * interface L extends J, K;
+     * class A implements I; class B extends A; class C extends B implements K;
+     * class D extends A; class E implements J; class F implements L.
+     * </pre>
+     */
+    public ClassHierarchyImplTest() {
+        loader = new TestClassLoader();
+        hierarchy = new ClassHierarchyImpl();
+        hierarchy.setDefaultClassLoader(loader);
+        hierarchy.setBootstrapClassLoader(loader);
+        object = newClass(ClassNames.OBJECT, null);
+        JClass i = newInterface("I");
+        JClass j = newInterface("J", i);
+        JClass k = newInterface("K");
+        JClass l = newInterface("L", j, k);
+        JClass a = newClass("A", object, i);
+        JClass b = newClass("B", a);
+        newClass("C", b, k);
+        newClass("D", a);
+        newClass("E", object, j);
+        newClass("F", object, l);
+    }
+
+    private JClass newClass(String name, JClass superClass, JClass... interfaces) {
+        return addClass(name, Set.of(Modifier.PUBLIC), superClass, interfaces);
+    }
+
+    private JClass newInterface(String name, JClass... superinterfaces) {
+        return addClass(name, Set.of(Modifier.PUBLIC, Modifier.INTERFACE,
+                Modifier.ABSTRACT), object, superinterfaces);
+    }
+
+    private JClass addClass(String name, Set<Modifier> modifiers,
+                            JClass superClass, JClass... interfaces) {
+        JClass jclass = newUnloadedClass(name, modifiers, superClass, interfaces);
+        loader.classes.put(name, jclass);
+        return jclass;
+    }
+
+    /**
+     * Creates a class which is added to the hierarchy,
+     * but not given by the class loader.
+     */
+    private JClass newUnloadedClass(String name, Set<Modifier> modifiers,
+                                    JClass superClass, JClass... interfaces) {
+        JClass jclass = new JClass(loader, name);
+        new TestClassBuilder(name, modifiers, superClass, List.of(interfaces))
+                .build(jclass);
+        hierarchy.addClass(jclass);
+        return jclass;
+    }
+
+    /**
+     * The subclass relation computed by walking the direct subclass
+     * (subinterface and implementor) maps, i.e., the way of computing
+     * subclasses before the index was introduced.
+     */
+    private Set<JClass> walkSubclassesOf(JClass jclass) {
+        Set<JClass> visited = new HashSet<>();
+        Queue<JClass> workList = new ArrayDeque<>();
+        workList.add(jclass);
+        while (!workList.isEmpty()) {
+            JClass c = workList.poll();
+            if (visited.add(c)) {
+                if (c.isInterface()) {
+                    workList.addAll(hierarchy.getDirectSubinterfacesOf(c));
+                    workList.addAll(hierarchy.getDirectImplementorsOf(c));
+                } else {
+                    workList.addAll(hierarchy.getDirectSubclassesOf(c));
+                }
+            }
+        }
+        return visited;
+    }
+
+    private JClass get(String name) {
+        return hierarchy.getClass(name);
+    }
+
+    /**
+     * Compares the index with the walk for all pairs of given classes.
+     */
+    private void checkAgainstWalk(Collection<JClass> classes) {
+        for (JClass sup : classes) {
+            Set<JClass> expected = walkSubclassesOf(sup);
+            Collection<JClass> subclasses = hierarchy.getAllSubclassesOf(sup);
+            Assert.assertEquals("subclasses of " + sup,
+                    expected, new HashSet<>(subclasses));
+            Assert.assertEquals("duplicate subclasses of " + sup,
+                    expected.size(), subclasses.size());
+            for (JClass sub : classes) {
+                // every interface is a subtype of java.lang.Object, but
+                // the direct subclass maps do not record interfaces
+                boolean isSubclass = expected.contains(sub) ||
+                        (sup == object && sub.isInterface());
+                Assert.assertEquals(sup + " :> " + sub,
+                        isSubclass, hierarchy.isSubclass(sup, sub));
+            }
+        }
+    }
+
+    @Test
+    public void testAllPairs() {
+        checkAgainstWalk(loader.getLoadedClasses());
+    }
+
+    @Test
+    public void testClassToClass() {
+        Assert.assertTrue(hierarchy.isSubclass(get("A"), get("C")));
+        Assert.assertTrue(hierarchy.isSubclass(get("B"), get("B")));
+        Assert.assertFalse(hierarchy.isSubclass(get("B"), get("D")));
+        Assert.assertFalse(hierarchy.isSubclass(get("C"), get("A")));
+        Assert.assertEquals(Set.of(get("A"), get("B"), get("C"), get("D")),
+                new HashSet<>(hierarchy.getAllSubclassesOf(get("A"))));
+    }
+
+    @Test
+    public void testInterfaceToImplementor() {
+        // C implements I through its superclass A
+        Assert.assertTrue(hierarchy.isSubclass(get("I"), get("C")));
+        // F implements I through its interface L
+        Assert.assertTrue(hierarchy.isSubclass(get("I"), get("F")));
+        Assert.assertTrue(hierarchy.isSubclass(get("K"), get("C")));
+        Assert.assertFalse(hierarchy.isSubclass(get("K"), get("B")));
+        Assert.assertFalse(hierarchy.isSubclass(get("J"), get("A")));
+    }
+
+    @Test
+    public void testSubinterfaces() {
+        Assert.assertTrue(hierarchy.isSubclass(get("I"), get("L")));
+        Assert.assertTrue(hierarchy.isSubclass(get("K"), get("L")));
+        Assert.assertFalse(hierarchy.isSubclass(get("L"), get("J")));
+        Assert.assertEquals(Set.of(get("J"), get("L"), get("E"), get("F")),
+                new HashSet<>(hierarchy.getAllSubclassesOf(get("J"))));
+    }
+
+    @Test
+    public void testInterfaceToObject() {
+        Assert.assertTrue(hierarchy.isSubclass(object, get("I")));
+        Assert.assertTrue(hierarchy.isSubclass(object, get("L")));
+        Assert.assertFalse(hierarchy.isSubclass(get("I"), object));
+    }
+
+    @Test
+    public void testAddClass() {
+        // builds the index
+        checkAgainstWalk(loader.getLoadedClasses());
+        newClass("G", get("C"), get("L"));
+        newInterface("M", get("K"));
+        // the index is rebuilt with the new classes
+        Assert.assertTrue(hierarchy.isSubclass(get("B"), get("G")));
+        Assert.assertTrue(hierarchy.isSubclass(get("J"), get("G")));
+        Assert.assertTrue(hierarchy.isSubclass(get("K"), get("M")));
+        checkAgainstWalk(loader.getLoadedClasses());
+    }
+
+    @Test
+    public void testUnloadedClass() {
+        checkAgainstWalk(loader.getLoadedClasses());
+        // H is not given by the class loader, but it is recorded by
+        // the direct subclass and implementor maps
+        JClass h = newUnloadedClass("H", Set.of(Modifier.PUBLIC), get("B"), get("K"));
+        Assert.assertTrue(hierarchy.isSubclass(get("A"), h));
+        Assert.assertTrue(hierarchy.isSubclass(get("K"), h));
+        Assert.assertTrue(hierarchy.isSubclass(h, h));
+        Assert.assertTrue(hierarchy.getAllSubclassesOf(get("B")).contains(h));
+        // X is neither given by the class loader nor recorded by the maps,
+        // thus it is not numbered by the index
+        JClass x = newUnloadedClass("X", Set.of(Modifier.PUBLIC), null);
+        Assert.assertTrue(hierarchy.isSubclass(x, x));
+        Assert.assertFalse(hierarchy.isSubclass(object, x));
+        Assert.assertEquals(List.of(x), List.copyOf(hierarchy.getAllSubclassesOf(x)));
+        List<JClass> classes = new ArrayList<>(loader.getLoadedClasses());
+        classes.add(h);
+        classes.add(x);
+        checkAgainstWalk(classes);
+    }
+}
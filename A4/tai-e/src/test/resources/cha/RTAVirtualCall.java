@@ -0,0 +1,32 @@
+public class RTAVirtualCall {
+
+    public static void main(String[] args) {
+        Animal a = new Dog();
+        a.speak();
+        makeCat();
+    }
+
+    static void makeCat() {
+        new Cat();
+    }
+}
+
+class Animal {
+    void speak() {
+    }
+}
+
+class Dog extends Animal {
+    void speak() {
+    }
+}
+
+class Cat extends Animal {
+    void speak() {
+    }
+}
+
+class Bird extends Animal {
+    void speak() {
+    }
+}
@@ -0,0 +1,19 @@
+public class SummaryCalls {
+
+    public static void main(String[] args) {
+        int a = 1;
+        int b = addOne(a);
+        int c = 5;
+        int d = addOne(c);
+        print(b);
+    }
+
+    static int addOne(int x) {
+        int y = x + 1;
+        return y;
+    }
+
+    static void print(int v) {
+        int w = v + 1;
+    }
+}
@@ -60,6 +60,21 @@ class PointsToSet implements Iterable<Obj> {
         return set.add(obj);
     }
 
+    /**
+     * Adds all objects in given pts to this set.
+     *
+     * @return the objects which are actually added to this set.
+     */
+    PointsToSet addAllDiff(PointsToSet pts) {
+        PointsToSet diff = new PointsToSet();
+        for (Obj obj : pts) {
+            if (addObject(obj)) {
+                diff.addObject(obj);
+            }
+        }
+        return diff;
+    }
+
     /**
      * @return true if this points-to set contains the given object, otherwise false.
      */
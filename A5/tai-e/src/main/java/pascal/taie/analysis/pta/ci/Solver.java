@@ -31,6 +31,7 @@ import pascal.taie.analysis.graph.callgraph.DefaultCallGraph;
 import pascal.taie.analysis.graph.callgraph.Edge;
 import pascal.taie.analysis.pta.core.heap.HeapModel;
 import pascal.taie.analysis.pta.core.heap.Obj;
+import pascal.taie.config.AnalysisOptions;
 import pascal.taie.ir.exp.InvokeExp;
 import pascal.taie.ir.exp.Var;
 import pascal.taie.ir.proginfo.MethodRef;
@@ -43,7 +44,10 @@ import pascal.taie.language.type.Type;
 
 import javax.crypto.spec.PSource;
 import java.awt.*;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 class Solver {
 
@@ -51,6 +55,8 @@ class Solver {
 
     private final HeapModel heapModel;
 
+    private final AnalysisOptions options;
+
     private DefaultCallGraph callGraph;
 
     private PointerFlowGraph pointerFlowGraph;
@@ -61,7 +67,8 @@ class Solver {
 
     private ClassHierarchy hierarchy;
 
-    Solver(HeapModel heapModel) {
+    Solver(AnalysisOptions options, HeapModel heapModel) {
+        this.options = options;
         this.heapModel = heapModel;
     }
 
@@ -73,12 +80,26 @@ class Solver {
         analyze();
     }
 
+    /**
+     * @return the minimum number of new PFG edges which triggers cycle
+     * detection, which is specified by option "cycle-detection-threshold".
+     */
+    private int getCycleDetectionThreshold() {
+        if (options.get("cycle-detection-threshold") == null) {
+            return PointerFlowGraph.DEFAULT_MIN_NEW_EDGES;
+        }
+        return options.getInt("cycle-detection-threshold");
+    }
+
     /**
      * Initializes pointer analysis.
      */
     private void initialize() {
-        workList = new WorkList();
-        pointerFlowGraph = new PointerFlowGraph();
+        workList = new WorkList(
+                options.getBooleanOrDefault("coalesce-worklist", false));
+        pointerFlowGraph = new PointerFlowGraph(
+                options.getBooleanOrDefault("cycle-elimination", false),
+                getCycleDetectionThreshold());
         callGraph = new DefaultCallGraph();
         stmtProcessor = new StmtProcessor();
         hierarchy = World.get().getClassHierarchy();
@@ -196,29 +217,79 @@ class Solver {
         while (!workList.isEmpty()) {
             WorkList.Entry entry = workList.pollEntry();
             PointsToSet delta = propagate(entry.pointer(), entry.pointsToSet());
-            if (entry.pointer() instanceof VarPtr varPtr) {
-                for (Obj obj : delta) {
-                    for (LoadField loadField: varPtr.getVar().getLoadFields()) {
-                        InstanceField source = pointerFlowGraph.getInstanceField(obj, loadField.getFieldRef().resolve());
-                        VarPtr target = pointerFlowGraph.getVarPtr(loadField.getLValue());
-                        addPFGEdge(source, target);
-                    }
-                    for (StoreField storeField: varPtr.getVar().getStoreFields()) {
-                        InstanceField target = pointerFlowGraph.getInstanceField(obj, storeField.getFieldRef().resolve());
-                        VarPtr source = pointerFlowGraph.getVarPtr(storeField.getRValue());
-                        addPFGEdge(source, target);
-                    }
-                    for (StoreArray storeArray: varPtr.getVar().getStoreArrays()) {
-                        ArrayIndex target = pointerFlowGraph.getArrayIndex(obj);
-                        VarPtr source = pointerFlowGraph.getVarPtr(storeArray.getRValue());
-                        addPFGEdge(source, target);
-                    }
-                    for (LoadArray loadArray: varPtr.getVar().getLoadArrays()) {
-                        ArrayIndex source = pointerFlowGraph.getArrayIndex(obj);
-                        VarPtr target = pointerFlowGraph.getVarPtr(loadArray.getLValue());
-                        addPFGEdge(source, target);
-                    }
-                    processCall(varPtr.getVar(), obj);
+            if (!delta.isEmpty()) {
+                // the pointers in the same collapsed cycle share the delta
+                for (Pointer pointer : pointerFlowGraph.getMembersOf(entry.pointer())) {
+                    processNewObjects(pointer, delta);
+                }
+            }
+            if (pointerFlowGraph.needsCycleDetection()) {
+                collapseCycles();
+            }
+        }
+    }
+
+    /**
+     * Processes the field accesses, array accesses and instance calls
+     * on a variable when the points-to set of the variable changes.
+     *
+     * @param pointer the pointer whose points-to set changes
+     * @param delta   the objects newly pointed to by the pointer
+     */
+    private void processNewObjects(Pointer pointer, PointsToSet delta) {
+        if (pointer instanceof VarPtr varPtr) {
+            for (Obj obj : delta) {
+                for (LoadField loadField: varPtr.getVar().getLoadFields()) {
+                    InstanceField source = pointerFlowGraph.getInstanceField(obj, loadField.getFieldRef().resolve());
+                    VarPtr target = pointerFlowGraph.getVarPtr(loadField.getLValue());
+                    addPFGEdge(source, target);
+                }
+                for (StoreField storeField: varPtr.getVar().getStoreFields()) {
+                    InstanceField target = pointerFlowGraph.getInstanceField(obj, storeField.getFieldRef().resolve());
+                    VarPtr source = pointerFlowGraph.getVarPtr(storeField.getRValue());
+                    addPFGEdge(source, target);
+                }
+                for (StoreArray storeArray: varPtr.getVar().getStoreArrays()) {
+                    ArrayIndex target = pointerFlowGraph.getArrayIndex(obj);
+                    VarPtr source = pointerFlowGraph.getVarPtr(storeArray.getRValue());
+                    addPFGEdge(source, target);
+                }
+                for (LoadArray loadArray: varPtr.getVar().getLoadArrays()) {
+                    ArrayIndex source = pointerFlowGraph.getArrayIndex(obj);
+                    VarPtr target = pointerFlowGraph.getVarPtr(loadArray.getLValue());
+                    addPFGEdge(source, target);
+                }
+                processCall(varPtr.getVar(), obj);
+            }
+        }
+    }
+
+    /**
+     * Collapses the cycles in the PFG, and makes the pointers in each
+     * collapsed cycle share one points-to set. As the pointers may lack
+     * some objects of the merged set, such objects are processed for
+     * each pointer, and the merged set is propagated to the successors.
+     */
+    private void collapseCycles() {
+        for (Pointer rep : pointerFlowGraph.collapseCycles()) {
+            Set<Pointer> members = pointerFlowGraph.getMembersOf(rep);
+            PointsToSet shared = new PointsToSet();
+            members.forEach(member -> shared.addAllDiff(member.getPointsToSet()));
+            // the members of previously collapsed cycles already share sets
+            Map<PointsToSet, PointsToSet> missingObjects = new IdentityHashMap<>();
+            boolean changed = false;
+            for (Pointer member : members) {
+                PointsToSet missing = missingObjects.computeIfAbsent(
+                        member.getPointsToSet(), pts -> pts.addAllDiff(shared));
+                member.setPointsToSet(shared);
+                if (!missing.isEmpty()) {
+                    processNewObjects(member, missing);
+                    changed = true;
+                }
+            }
+            if (changed) {
+                for (Pointer succ : pointerFlowGraph.getSuccsOf(rep)) {
+                    workList.addEntry(succ, shared);
                 }
             }
         }
@@ -237,7 +308,7 @@ class Solver {
                 delta.addObject(obj);
             }
         }
-        for (Obj obj : delta) {
+        if (!delta.isEmpty()) {
             for (Pointer succ : pointerFlowGraph.getSuccsOf(pointer)) {
                 workList.addEntry(succ, delta);
             }
@@ -22,21 +22,74 @@
 
 package pascal.taie.analysis.pta.ci;
 
+import pascal.taie.util.collection.Maps;
+
 import java.util.ArrayDeque;
+import java.util.Map;
 import java.util.Queue;
 
 /**
  * Represents work list in pointer analysis.
+ * <p>
+ * By default, each call of {@link #addEntry(Pointer, PointsToSet)} adds
+ * a separate entry. If the work list is coalescing, then the points-to
+ * sets added for the same pointer are merged into one pending set until
+ * the pointer is polled, so that a pointer which receives many small
+ * points-to sets (e.g., the receiver of a popular method) is propagated
+ * once with all of them.
  */
 class WorkList {
 
+    private final boolean coalescing;
+
     private final Queue<Entry> entries = new ArrayDeque<>();
 
+    /**
+     * Pointers which have pending points-to sets, in the order they
+     * were added. Only used by coalescing work list.
+     */
+    private final Queue<Pointer> dirtyPointers = new ArrayDeque<>();
+
+    /**
+     * Pending points-to set of each pointer in {@link #dirtyPointers}.
+     */
+    private final Map<Pointer, PendingSet> pendingSets = Maps.newMap();
+
+    WorkList() {
+        this(false);
+    }
+
+    /**
+     * @param coalescing whether merge the points-to sets added for
+     *                   the same pointer into one entry
+     */
+    WorkList(boolean coalescing) {
+        this.coalescing = coalescing;
+    }
+
     /**
      * Adds an entry to the work list.
      */
     void addEntry(Pointer pointer, PointsToSet pointsToSet) {
-        entries.add(new Entry(pointer, pointsToSet));
+        if (!coalescing) {
+            entries.add(new Entry(pointer, pointsToSet));
+            return;
+        }
+        PendingSet pending = pendingSets.get(pointer);
+        if (pending == null) {
+            // the given set may be shared by other entries, thus it is
+            // kept as is and only copied when more objects are merged
+            pendingSets.put(pointer, new PendingSet(pointsToSet));
+            dirtyPointers.add(pointer);
+        } else if (pending.shared) {
+            PointsToSet merged = new PointsToSet();
+            pending.pointsToSet.forEach(merged::addObject);
+            pointsToSet.forEach(merged::addObject);
+            pending.pointsToSet = merged;
+            pending.shared = false;
+        } else {
+            pointsToSet.forEach(pending.pointsToSet::addObject);
+        }
     }
 
     /**
@@ -44,14 +97,37 @@ class WorkList {
      * if this work list is empty.
      */
     Entry pollEntry() {
-        return entries.poll();
+        if (!coalescing) {
+            return entries.poll();
+        }
+        Pointer pointer = dirtyPointers.poll();
+        return pointer == null ? null :
+                new Entry(pointer, pendingSets.remove(pointer).pointsToSet);
     }
 
     /**
      * @return true if the work list is empty, otherwise false.
      */
     boolean isEmpty() {
-        return entries.isEmpty();
+        return coalescing ? dirtyPointers.isEmpty() : entries.isEmpty();
+    }
+
+    /**
+     * Points-to set waiting to be propagated to a pointer.
+     */
+    private static class PendingSet {
+
+        private PointsToSet pointsToSet;
+
+        /**
+         * Whether {@link #pointsToSet} is the set given by the caller,
+         * which must not be modified.
+         */
+        private boolean shared = true;
+
+        private PendingSet(PointsToSet pointsToSet) {
+            this.pointsToSet = pointsToSet;
+        }
     }
 
     /**
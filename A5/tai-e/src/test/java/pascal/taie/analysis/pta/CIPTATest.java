@@ -78,4 +78,20 @@ public class CIPTATest {
     public void testMergeParam() {
         Tests.testCIPTA(DIR, "MergeParam");
     }
+
+    @Test
+    public void testExampleCoalescing() {
+        Tests.testCIPTA(DIR, "Example", "coalesce-worklist:true");
+    }
+
+    @Test
+    public void testCycle() {
+        Tests.testCIPTA(DIR, "Cycle");
+    }
+
+    @Test
+    public void testCycleElimination() {
+        Tests.testCIPTA(DIR, "Cycle",
+                "cycle-elimination:true", "cycle-detection-threshold:1");
+    }
 }
@@ -0,0 +1,114 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.ci;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import pascal.taie.ir.exp.Var;
+
+import java.util.List;
+import java.util.Set;
+
+public class PointerFlowGraphTest {
+
+    private static Pointer newPointer(PointerFlowGraph pfg, String name) {
+        return pfg.getVarPtr(new Var(null, name, null, 0));
+    }
+
+    @Test
+    public void testCollapseCycle() {
+        PointerFlowGraph pfg = new PointerFlowGraph(true, 1);
+        Pointer a = newPointer(pfg, "a");
+        Pointer b = newPointer(pfg, "b");
+        Pointer c = newPointer(pfg, "c");
+        Pointer d = newPointer(pfg, "d");
+        // a -> b -> c -> a, c -> d
+        pfg.addEdge(a, b);
+        pfg.addEdge(b, c);
+        pfg.addEdge(c, d);
+        pfg.addEdge(c, a);
+        Assert.assertTrue(pfg.needsCycleDetection());
+        List<Pointer> reps = pfg.collapseCycles();
+        Assert.assertEquals(1, reps.size());
+        Pointer rep = reps.get(0);
+        for (Pointer p : List.of(a, b, c)) {
+            Assert.assertSame(rep, pfg.getRepresentativeOf(p));
+            Assert.assertEquals(Set.of(a, b, c), pfg.getMembersOf(p));
+            Assert.assertEquals(Set.of(d), pfg.getSuccsOf(p));
+        }
+        Assert.assertSame(d, pfg.getRepresentativeOf(d));
+        Assert.assertEquals(Set.of(d), pfg.getMembersOf(d));
+        Assert.assertFalse(pfg.needsCycleDetection());
+        // edges inside a collapsed cycle are redundant
+        Assert.assertFalse(pfg.addEdge(b, a));
+    }
+
+    @Test
+    public void testMergeCollapsedCycles() {
+        PointerFlowGraph pfg = new PointerFlowGraph(true, 1);
+        Pointer a = newPointer(pfg, "a");
+        Pointer b = newPointer(pfg, "b");
+        Pointer c = newPointer(pfg, "c");
+        Pointer d = newPointer(pfg, "d");
+        pfg.addEdge(a, b);
+        pfg.addEdge(b, a);
+        Assert.assertEquals(1, pfg.collapseCycles().size());
+        pfg.addEdge(c, d);
+        pfg.addEdge(d, c);
+        pfg.addEdge(b, c);
+        pfg.addEdge(c, a);
+        Assert.assertEquals(1, pfg.collapseCycles().size());
+        Pointer rep = pfg.getRepresentativeOf(a);
+        for (Pointer p : List.of(a, b, c, d)) {
+            Assert.assertSame(rep, pfg.getRepresentativeOf(p));
+            Assert.assertEquals(Set.of(a, b, c, d), pfg.getMembersOf(p));
+            Assert.assertTrue(pfg.getSuccsOf(p).isEmpty());
+        }
+    }
+
+    @Test
+    public void testDetectionThreshold() {
+        PointerFlowGraph pfg = new PointerFlowGraph(true, 3);
+        Pointer a = newPointer(pfg, "a");
+        Pointer b = newPointer(pfg, "b");
+        Pointer c = newPointer(pfg, "c");
+        pfg.addEdge(a, b);
+        pfg.addEdge(b, a);
+        Assert.assertFalse(pfg.needsCycleDetection());
+        pfg.addEdge(b, c);
+        Assert.assertTrue(pfg.needsCycleDetection());
+    }
+
+    @Test
+    public void testNoCycleElimination() {
+        PointerFlowGraph pfg = new PointerFlowGraph(false, 1);
+        Pointer a = newPointer(pfg, "a");
+        Pointer b = newPointer(pfg, "b");
+        pfg.addEdge(a, b);
+        pfg.addEdge(b, a);
+        Assert.assertFalse(pfg.needsCycleDetection());
+        Assert.assertEquals(Set.of(a), pfg.getMembersOf(a));
+        Assert.assertEquals(Set.of(a), pfg.getSuccsOf(b));
+    }
+}
@@ -0,0 +1,219 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.core.cs.context;
+
+import pascal.taie.util.AnalysisException;
+import pascal.taie.util.Indexable;
+import pascal.taie.util.collection.Maps;
+
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Trie-based contexts. Each context is a node in the trie of its
+ * {@link Factory}: it stores its last element and a link to the context
+ * that consists of its other elements (i.e., its parent), and caches
+ * the contexts that extend it by one more element (i.e., its children).
+ * <p>
+ * Since the factory never creates two nodes for the same list of
+ * elements, contexts are compared by identity, and each context can be
+ * identified by a unique index. Appending an element to an existing
+ * context is a lookup in the children of the context, and it creates
+ * no objects unless the resulting context has never been seen before.
+ *
+ * @param <T> type of context elements
+ */
+public class TrieContext<T> implements Context, Indexable {
+
+    private final Factory<T> factory;
+
+    private final TrieContext<T> parent;
+
+    private final T elem;
+
+    private final int length;
+
+    private final int index;
+
+    private Map<T, TrieContext<T>> children;
+
+    private TrieContext(Factory<T> factory, TrieContext<T> parent,
+                        T elem, int index) {
+        this.factory = factory;
+        this.parent = parent;
+        this.elem = elem;
+        this.length = parent == null ? 0 : parent.length + 1;
+        this.index = index;
+    }
+
+    @Override
+    public int getLength() {
+        return length;
+    }
+
+    @Override
+    public Object getElementAt(int i) {
+        if (i < 0 || i >= length) {
+            throw new AnalysisException(
+                    "Context " + this + " doesn't have " + i + "-th element");
+        }
+        TrieContext<T> c = this;
+        for (int j = length - 1; j > i; --j) {
+            c = c.parent;
+        }
+        return c.elem;
+    }
+
+    /**
+     * @return the unique index of this context in its factory.
+     */
+    @Override
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * Contexts are interned, thus equality is identity (inherited from
+     * {@link Object#equals(Object)}), and the index is a perfect hash code.
+     */
+    @Override
+    public int hashCode() {
+        return index;
+    }
+
+    @Override
+    public String toString() {
+        StringJoiner joiner = new StringJoiner(", ", "[", "]");
+        for (int i = 0; i < length; ++i) {
+            joiner.add(String.valueOf(getElementAt(i)));
+        }
+        return joiner.toString();
+    }
+
+    /**
+     * Factory of trie-based contexts. This class is thread-safe:
+     * the children of each context are created under the lock of
+     * the context, so that concurrent selectors receive the same
+     * instance for the same elements.
+     *
+     * @param <T> type of context elements
+     */
+    public static class Factory<T> implements ContextFactory<T> {
+
+        private final TrieContext<T> rootContext;
+
+        /**
+         * Number of contexts created by this factory, also used
+         * as the index of the next new context.
+         */
+        private final AtomicInteger contextCount = new AtomicInteger();
+
+        public Factory() {
+            rootContext = new TrieContext<>(this, null, null,
+                    contextCount.getAndIncrement());
+        }
+
+        @Override
+        public Context getEmptyContext() {
+            return rootContext;
+        }
+
+        @Override
+        public Context make(List<T> elements) {
+            TrieContext<T> c = rootContext;
+            for (T elem : elements) {
+                c = getChild(c, elem);
+            }
+            return c;
+        }
+
+        @Override
+        public Context makeLastK(Context context, int k) {
+            return lastK(context, k);
+        }
+
+        @Override
+        public Context append(Context parent, T elem, int limit) {
+            if (limit == 0) {
+                return rootContext;
+            }
+            return getChild(lastK(parent, limit - 1), elem);
+        }
+
+        /**
+         * @return the number of contexts created by this factory.
+         */
+        public int getContextCount() {
+            return contextCount.get();
+        }
+
+        private TrieContext<T> lastK(Context context, int k) {
+            if (k == 0) {
+                return rootContext;
+            }
+            int length = context.getLength();
+            TrieContext<T> owned = asOwned(context);
+            if (length <= k && owned != null) {
+                return owned;
+            }
+            TrieContext<T> c = rootContext;
+            for (int i = Math.max(0, length - k); i < length; ++i) {
+                @SuppressWarnings("unchecked")
+                T elem = (T) context.getElementAt(i);
+                c = getChild(c, elem);
+            }
+            return c;
+        }
+
+        /**
+         * @return given context if it is created by this factory,
+         * otherwise null.
+         */
+        private TrieContext<T> asOwned(Context context) {
+            if (context instanceof TrieContext<?> c && c.factory == this) {
+                // contexts of this factory only contain elements of type T
+                @SuppressWarnings("unchecked")
+                TrieContext<T> owned = (TrieContext<T>) c;
+                return owned;
+            }
+            return null;
+        }
+
+        private TrieContext<T> getChild(TrieContext<T> parent, T elem) {
+            synchronized (parent) {
+                if (parent.children == null) {
+                    parent.children = Maps.newHybridMap();
+                }
+                TrieContext<T> child = parent.children.get(elem);
+                if (child == null) {
+                    child = new TrieContext<>(this, parent, elem,
+                            contextCount.getAndIncrement());
+                    parent.children.put(elem, child);
+                }
+                return child;
+            }
+        }
+    }
+}
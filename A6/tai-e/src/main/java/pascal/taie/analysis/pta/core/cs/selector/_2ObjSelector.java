@@ -23,7 +23,6 @@
 package pascal.taie.analysis.pta.core.cs.selector;
 
 import pascal.taie.analysis.pta.core.cs.context.Context;
-import pascal.taie.analysis.pta.core.cs.context.ListContext;
 import pascal.taie.analysis.pta.core.cs.element.CSCallSite;
 import pascal.taie.analysis.pta.core.cs.element.CSMethod;
 import pascal.taie.analysis.pta.core.cs.element.CSObj;
@@ -33,12 +32,7 @@ import pascal.taie.language.classes.JMethod;
 /**
  * Implementation of 2-object sensitivity.
  */
-public class _2ObjSelector implements ContextSelector {
-
-    @Override
-    public Context getEmptyContext() {
-        return ListContext.make();
-    }
+public class _2ObjSelector extends AbstractContextSelector<Obj> {
 
     @Override
     public Context selectContext(CSCallSite callSite, JMethod callee) {
@@ -49,20 +43,12 @@ public class _2ObjSelector implements ContextSelector {
     @Override
     public Context selectContext(CSCallSite callSite, CSObj recv, JMethod callee) {
         // TODO - finish me
-        return switch (recv.getContext().getLength()) {
-            case 0 -> ListContext.make(recv.getObject());
-            case 1 -> ListContext.make(recv.getContext().getElementAt(0), recv.getObject());
-            default -> ListContext.make(recv.getContext().getElementAt(1), recv.getObject());
-        };
+        return factory.append(recv.getContext(), recv.getObject(), 2);
     }
 
     @Override
     public Context selectHeapContext(CSMethod method, Obj obj) {
         // TODO - finish me
-        return switch (method.getContext().getLength()) {
-            case 0 -> ListContext.make();
-            case 1 -> ListContext.make(method.getContext().getElementAt(0));
-            default -> ListContext.make(method.getContext().getElementAt(1));
-        };
+        return factory.makeLastK(method.getContext(), 1);
     }
 }
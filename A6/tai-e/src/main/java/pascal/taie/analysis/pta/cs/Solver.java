@@ -38,6 +38,7 @@ import pascal.taie.analysis.pta.core.cs.element.CSManager;
 import pascal.taie.analysis.pta.core.cs.element.CSMethod;
 import pascal.taie.analysis.pta.core.cs.element.CSObj;
 import pascal.taie.analysis.pta.core.cs.element.CSVar;
+import pascal.taie.analysis.pta.core.cs.element.ConcurrentCSManager;
 import pascal.taie.analysis.pta.core.cs.element.InstanceField;
 import pascal.taie.analysis.pta.core.cs.element.MapBasedCSManager;
 import pascal.taie.analysis.pta.core.cs.element.Pointer;
@@ -55,10 +56,23 @@ import pascal.taie.language.classes.JField;
 import pascal.taie.language.classes.JMethod;
 import pascal.taie.language.type.Type;
 
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
 class Solver {
 
     private static final Logger logger = LogManager.getLogger(Solver.class);
 
+    /**
+     * Number of locks which guard the points-to sets and PFG successors
+     * of pointers in parallel mode, must be a power of two.
+     */
+    private static final int LOCK_STRIPES = 1 << 10;
+
     private final AnalysisOptions options;
 
     private final HeapModel heapModel;
@@ -73,6 +87,29 @@ class Solver {
 
     private WorkList workList;
 
+    /**
+     * Whether the work-list entries are processed by multiple threads.
+     */
+    private boolean parallel;
+
+    /**
+     * Locks which guard the points-to sets and PFG successors of pointers,
+     * see {@link #getLock(Pointer)}.
+     */
+    private Object[] locks;
+
+    /**
+     * Pool which processes new work-list entries during the parallel
+     * phases of {@link #analyzeInParallel(int)}, otherwise null, and
+     * new entries are added to {@link #workList}.
+     */
+    private volatile ForkJoinPool pool;
+
+    /**
+     * First exception thrown by the tasks in {@link #pool}.
+     */
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
     private PointerAnalysisResult result;
 
     Solver(AnalysisOptions options, HeapModel heapModel,
@@ -83,15 +120,52 @@ class Solver {
     }
 
     void solve() {
+        int threads = getThreads();
+        parallel = threads > 1;
         initialize();
-        analyze();
+        if (parallel) {
+            analyzeInParallel(threads);
+        } else {
+            analyze();
+        }
+    }
+
+    /**
+     * @return the number of threads used by the solver,
+     * which is specified by option "threads".
+     */
+    private int getThreads() {
+        if (options.get("threads") == null) {
+            return 1;
+        }
+        int threads = options.getInt("threads");
+        return threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * @return the minimum number of new PFG edges which triggers cycle
+     * detection, which is specified by option "cycle-detection-threshold".
+     */
+    private int getCycleDetectionThreshold() {
+        if (options.get("cycle-detection-threshold") == null) {
+            return PointerFlowGraph.DEFAULT_MIN_NEW_EDGES;
+        }
+        return options.getInt("cycle-detection-threshold");
     }
 
     private void initialize() {
-        csManager = new MapBasedCSManager();
+        PointsToSetFactory.setRepresentation(options.getString("pts"));
+        csManager = parallel ? new ConcurrentCSManager() : new MapBasedCSManager();
         callGraph = new CSCallGraph(csManager);
-        pointerFlowGraph = new PointerFlowGraph();
-        workList = new WorkList();
+        pointerFlowGraph = new PointerFlowGraph(
+                options.getBooleanOrDefault("cycle-elimination", false),
+                getCycleDetectionThreshold(), parallel);
+        locks = new Object[parallel ? LOCK_STRIPES : 1];
+        for (int i = 0; i < locks.length; ++i) {
+            locks[i] = new Object();
+        }
+        workList = new WorkList(
+                options.getBooleanOrDefault("coalesce-worklist", false));
         // process program entry, i.e., main method
         Context defContext = contextSelector.getEmptyContext();
         JMethod main = World.get().getMainMethod();
@@ -133,11 +207,11 @@ class Solver {
         @Override
         public Void visit(New stmt) {
             CSVar csVar = csManager.getCSVar(context, stmt.getLValue());
-            Obj obj = heapModel.getObj(stmt);
+            Obj obj = getObj(stmt);
             CSObj csObj = csManager.getCSObj(contextSelector.selectHeapContext(csMethod, obj), obj);
             // CSObj csObj = csManager.getCSObj(context, heapModel.getObj(stmt));
             PointsToSet pointsToSet = PointsToSetFactory.make(csObj);
-            workList.addEntry(csVar, pointsToSet);
+            addEntry(csVar, pointsToSet);
             return null;
         }
 
@@ -145,7 +219,7 @@ class Solver {
         public Void visit(Copy stmt) {
             CSVar target = csManager.getCSVar(context, stmt.getLValue());
             CSVar source = csManager.getCSVar(context, stmt.getRValue());
-            pointerFlowGraph.addEdge(source, target);
+            addPFGEdge(source, target);
             return null;
         }
 
@@ -207,12 +281,47 @@ class Solver {
      */
     private void addPFGEdge(Pointer source, Pointer target) {
         // TODO - finish me
-        if (pointerFlowGraph.addEdge(source, target)) {
-            PointsToSet pts = source.getPointsToSet();
-            if (!pts.isEmpty()) {
-                workList.addEntry(target, pts);
+        PointsToSet pts;
+        // the edge and the objects of source are read together, so that
+        // the objects concurrently added to source are either in pts or
+        // propagated along the edge by propagate()
+        synchronized (getLock(source)) {
+            if (!pointerFlowGraph.addEdge(source, target)) {
+                return;
+            }
+            pts = source.getPointsToSet();
+            if (pts.isEmpty()) {
+                return;
+            }
+            if (parallel) {
+                pts = copyOf(pts);
             }
         }
+        addEntry(target, pts);
+    }
+
+    /**
+     * Adds an entry to the work list, or submits it to {@link #pool}
+     * during the parallel phases.
+     * <p>
+     * In parallel mode, pointsToSet must not be modified afterwards,
+     * as it is read by the task which processes the entry.
+     */
+    private void addEntry(Pointer pointer, PointsToSet pointsToSet) {
+        ForkJoinPool pool = this.pool;
+        if (pool != null) {
+            pool.execute(() -> {
+                if (failure.get() == null) {
+                    try {
+                        processEntry(pointer, pointsToSet);
+                    } catch (Throwable e) {
+                        failure.compareAndSet(null, e);
+                    }
+                }
+            });
+        } else {
+            workList.addEntry(pointer, pointsToSet);
+        }
     }
 
     /**
@@ -222,33 +331,147 @@ class Solver {
         // TODO - finish me
         while (!workList.isEmpty()) {
             WorkList.Entry entry = workList.pollEntry();
-            PointsToSet delta = propagate(entry.pointer(), entry.pointsToSet());
-            if (entry.pointer() instanceof CSVar csVar) {
-                Context context = csVar.getContext();
-                for (CSObj csObj : delta) {
-                    for (LoadField loadField: csVar.getVar().getLoadFields()) {
-                        JField field = loadField.getFieldRef().resolve();
-                        InstanceField source = csManager.getInstanceField(csObj, field);
-                        CSVar target = csManager.getCSVar(context, loadField.getLValue());
-                        addPFGEdge(source, target);
-                    }
-                    for (StoreField storeField: csVar.getVar().getStoreFields()) {
-                        JField field = storeField.getFieldRef().resolve();
-                        InstanceField target = csManager.getInstanceField(csObj, field);
-                        CSVar source = csManager.getCSVar(context, storeField.getRValue());
-                        addPFGEdge(source, target);
-                    }
-                    for (StoreArray storeArray: csVar.getVar().getStoreArrays()) {
-                        ArrayIndex target = csManager.getArrayIndex(csObj);
-                        CSVar source = csManager.getCSVar(context, storeArray.getRValue());
-                        addPFGEdge(source, target);
-                    }
-                    for (LoadArray loadArray: csVar.getVar().getLoadArrays()) {
-                        ArrayIndex source = csManager.getArrayIndex(csObj);
-                        CSVar target = csManager.getCSVar(context, loadArray.getLValue());
-                        addPFGEdge(source, target);
-                    }
-                    processCall(csVar, csObj);
+            processEntry(entry.pointer(), entry.pointsToSet());
+            if (pointerFlowGraph.needsCycleDetection()) {
+                collapseCycles();
+            }
+        }
+    }
+
+    /**
+     * Propagates pointsToSet to given pointer, and processes the objects
+     * newly pointed to by the pointer.
+     */
+    private void processEntry(Pointer pointer, PointsToSet pointsToSet) {
+        PointsToSet delta = propagate(pointer, pointsToSet);
+        if (!delta.isEmpty()) {
+            // the pointers in the same collapsed cycle share the delta
+            for (Pointer member : pointerFlowGraph.getMembersOf(pointer)) {
+                processNewObjects(member, delta);
+            }
+        }
+    }
+
+    /**
+     * Processes work-list entries by multiple threads until no entries
+     * are left.
+     * <p>
+     * Each entry is processed by a task in a {@link ForkJoinPool}, with the
+     * same routines as {@link #analyze()}, and the entries added by a task
+     * are submitted to the pool as new tasks. The tasks share the PFG,
+     * call graph and {@link CSManager}, which are thread-safe in parallel
+     * mode, and the points-to set and PFG successors of each pointer are
+     * guarded by one of {@link #locks}. As a pointer is locked only while
+     * its points-to set or successors are updated, the tasks on different
+     * pointers, including their new PFG edges, call edges and reachable
+     * methods, run in parallel.
+     * <p>
+     * The points-to sets carried by entries are never modified after
+     * the entries are added, thus a task reads them without locks, and
+     * the objects of a pointer are copied when they are propagated along
+     * a new PFG edge. Work-list coalescing does not apply to the entries
+     * processed by the pool.
+     * <p>
+     * When the pool becomes quiescent, the collapsed cycles are detected
+     * by the calling thread, and the entries which they add are submitted
+     * again, until the pool is quiescent with no entries left.
+     *
+     * @param threads number of threads which process the entries
+     */
+    private void analyzeInParallel(int threads) {
+        // asynchronous mode, as the tasks are never joined
+        ForkJoinPool forkJoinPool = new ForkJoinPool(threads,
+                ForkJoinPool.defaultForkJoinWorkerThreadFactory, null, true);
+        try {
+            while (!workList.isEmpty()) {
+                pool = forkJoinPool;
+                while (!workList.isEmpty()) {
+                    WorkList.Entry entry = workList.pollEntry();
+                    addEntry(entry.pointer(), entry.pointsToSet());
+                }
+                forkJoinPool.awaitQuiescence(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+                pool = null;
+                Throwable e = failure.get();
+                if (e instanceof Error error) {
+                    throw error;
+                } else if (e != null) {
+                    throw (RuntimeException) e;
+                }
+                if (pointerFlowGraph.needsCycleDetection()) {
+                    collapseCycles();
+                }
+            }
+        } finally {
+            forkJoinPool.shutdown();
+        }
+    }
+
+    /**
+     * Processes the field accesses, array accesses and instance calls
+     * on a variable when the points-to set of the variable changes.
+     *
+     * @param pointer the pointer whose points-to set changes
+     * @param delta   the objects newly pointed to by the pointer
+     */
+    private void processNewObjects(Pointer pointer, PointsToSet delta) {
+        if (pointer instanceof CSVar csVar) {
+            Context context = csVar.getContext();
+            for (CSObj csObj : delta) {
+                for (LoadField loadField: csVar.getVar().getLoadFields()) {
+                    JField field = loadField.getFieldRef().resolve();
+                    InstanceField source = csManager.getInstanceField(csObj, field);
+                    CSVar target = csManager.getCSVar(context, loadField.getLValue());
+                    addPFGEdge(source, target);
+                }
+                for (StoreField storeField: csVar.getVar().getStoreFields()) {
+                    JField field = storeField.getFieldRef().resolve();
+                    InstanceField target = csManager.getInstanceField(csObj, field);
+                    CSVar source = csManager.getCSVar(context, storeField.getRValue());
+                    addPFGEdge(source, target);
+                }
+                for (StoreArray storeArray: csVar.getVar().getStoreArrays()) {
+                    ArrayIndex target = csManager.getArrayIndex(csObj);
+                    CSVar source = csManager.getCSVar(context, storeArray.getRValue());
+                    addPFGEdge(source, target);
+                }
+                for (LoadArray loadArray: csVar.getVar().getLoadArrays()) {
+                    ArrayIndex source = csManager.getArrayIndex(csObj);
+                    CSVar target = csManager.getCSVar(context, loadArray.getLValue());
+                    addPFGEdge(source, target);
+                }
+                processCall(csVar, csObj);
+            }
+        }
+    }
+
+    /**
+     * Collapses the cycles in the PFG, and makes the pointers in each
+     * collapsed cycle share one points-to set. As the pointers may lack
+     * some objects of the merged set, such objects are processed for
+     * each pointer, and the merged set is propagated to the successors.
+     */
+    private void collapseCycles() {
+        for (Pointer rep : pointerFlowGraph.collapseCycles()) {
+            Set<Pointer> members = pointerFlowGraph.getMembersOf(rep);
+            PointsToSet shared = PointsToSetFactory.make();
+            members.forEach(member -> shared.addAll(member.getPointsToSet()));
+            // the members of previously collapsed cycles already share sets
+            Map<PointsToSet, PointsToSet> missingObjects = new IdentityHashMap<>();
+            boolean changed = false;
+            for (Pointer member : members) {
+                PointsToSet missing = missingObjects.computeIfAbsent(
+                        member.getPointsToSet(), pts -> pts.addAllDiff(shared));
+                member.setPointsToSet(shared);
+                if (!missing.isEmpty()) {
+                    processNewObjects(member, missing);
+                    changed = true;
+                }
+            }
+            if (changed) {
+                // the shared set is modified by later entries of the members
+                PointsToSet pts = parallel ? copyOf(shared) : shared;
+                for (Pointer succ : pointerFlowGraph.getSuccsOf(rep)) {
+                    addEntry(succ, pts);
                 }
             }
         }
@@ -260,18 +483,23 @@ class Solver {
      */
     private PointsToSet propagate(Pointer pointer, PointsToSet pointsToSet) {
         // TODO - finish me
-        PointsToSet delta = PointsToSetFactory.make();
-        for (CSObj obj : pointsToSet) {
-            if (pointer.getPointsToSet().addObject(obj)) {
-                delta.addObject(obj);
-            }
+        synchronized (getLock(pointer)) {
+            PointsToSet delta = pointer.getPointsToSet().addAllDiff(pointsToSet);
+            propagateDelta(pointer, delta);
+            return delta;
         }
+    }
+
+    /**
+     * Propagates delta, i.e., the objects newly added to pt(pointer),
+     * to the PFG successors of pointer.
+     */
+    private void propagateDelta(Pointer pointer, PointsToSet delta) {
         if (!delta.isEmpty()) {
             for (Pointer succ : pointerFlowGraph.getSuccsOf(pointer)) {
-                workList.addEntry(succ, delta);
+                addEntry(succ, delta);
             }
         }
-        return delta;
     }
 
     /**
@@ -291,7 +519,7 @@ class Solver {
             // recvObj -> m_this
             CSVar pt = csManager.getCSVar(ct, callee.getIR().getThis());
             PointsToSet pts = PointsToSetFactory.make(recvObj);
-            workList.addEntry(pt, pts);
+            addEntry(pt, pts);
             // addEdge
             CSMethod csMethod = csManager.getCSMethod(ct, callee);
             Edge<CSCallSite, CSMethod> edge = new Edge<>(CallGraphs.getCallKind(invoke), csCallSite, csMethod);
@@ -325,7 +553,36 @@ class Solver {
      */
     private JMethod resolveCallee(CSObj recv, Invoke callSite) {
         Type type = recv != null ? recv.getObject().getType() : null;
-        return CallGraphs.resolveCallee(type, callSite);
+        // the class hierarchy caches the dispatch results in a map
+        // which is not thread-safe
+        synchronized (World.get().getClassHierarchy()) {
+            return CallGraphs.resolveCallee(type, callSite);
+        }
+    }
+
+    /**
+     * @return the abstract object allocated by given statement.
+     */
+    private Obj getObj(New stmt) {
+        // the heap model caches the objects in maps which are not thread-safe
+        synchronized (heapModel) {
+            return heapModel.getObj(stmt);
+        }
+    }
+
+    /**
+     * @return the lock which guards the points-to set and PFG successors
+     * of given pointer, i.e., of the representative of its collapsed cycle.
+     */
+    private Object getLock(Pointer pointer) {
+        int h = pointerFlowGraph.getRepresentativeOf(pointer).hashCode();
+        return locks[(h ^ (h >>> 16)) & (locks.length - 1)];
+    }
+
+    private static PointsToSet copyOf(PointsToSet pts) {
+        PointsToSet copy = PointsToSetFactory.make();
+        copy.addAll(pts);
+        return copy;
     }
 
     PointerAnalysisResult getResult() {
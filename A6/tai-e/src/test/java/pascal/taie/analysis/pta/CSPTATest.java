@@ -93,4 +93,41 @@ public class CSPTATest {
     public void testArray() {
         Tests.testCSPTA(DIR, "Array");
     }
+
+    @Test
+    public void testTwoObjectBitSet() {
+        Tests.testCSPTA(DIR, "TwoObject", "cs:2-obj", "pts:bitset");
+    }
+
+    @Test
+    public void testArrayBitSet() {
+        Tests.testCSPTA(DIR, "Array", "pts:bitset");
+    }
+
+    @Test
+    public void testTwoCallCoalescing() {
+        Tests.testCSPTA(DIR, "TwoCall", "cs:2-call", "coalesce-worklist:true");
+    }
+
+    @Test
+    public void testCycle() {
+        Tests.testCSPTA(DIR, "Cycle");
+    }
+
+    @Test
+    public void testCycleElimination() {
+        Tests.testCSPTA(DIR, "Cycle",
+                "cycle-elimination:true", "cycle-detection-threshold:1");
+    }
+
+    @Test
+    public void testTwoObjectParallel() {
+        Tests.testCSPTA(DIR, "TwoObject", "cs:2-obj", "threads:4");
+    }
+
+    @Test
+    public void testTwoCallParallel() {
+        Tests.testCSPTA(DIR, "TwoCall", "cs:2-call", "threads:4",
+                "cycle-elimination:true", "cycle-detection-threshold:1", "pts:bitset");
+    }
 }
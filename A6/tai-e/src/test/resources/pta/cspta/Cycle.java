@@ -0,0 +1,26 @@
+class Cycle {
+
+    public static void main(String[] args) {
+        A a = new A();
+        A b = new A();
+        a = b;
+        b = a;
+        C c = new C();
+        c.f = a;
+        A d = c.f;
+        a = d;
+        A e = id(d);
+        a = e;
+    }
+
+    static A id(A p) {
+        return p;
+    }
+}
+
+class A {
+}
+
+class C {
+    A f;
+}
@@ -25,14 +25,20 @@ package pascal.taie.analysis.dataflow.inter;
 import pascal.taie.World;
 import pascal.taie.analysis.ProgramAnalysis;
 import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.graph.callgraph.CallGraphBuilder;
 import pascal.taie.analysis.graph.icfg.CallEdge;
 import pascal.taie.analysis.graph.icfg.CallToReturnEdge;
 import pascal.taie.analysis.graph.icfg.ICFG;
 import pascal.taie.analysis.graph.icfg.ICFGBuilder;
 import pascal.taie.analysis.graph.icfg.ICFGEdge;
+import pascal.taie.analysis.graph.icfg.LazyICFG;
 import pascal.taie.analysis.graph.icfg.NormalEdge;
 import pascal.taie.analysis.graph.icfg.ReturnEdge;
+import pascal.taie.analysis.pta.PointerAnalysisResult;
 import pascal.taie.config.AnalysisConfig;
+import pascal.taie.config.ConfigException;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.language.classes.JMethod;
 
 /**
  * Provides common functionalities for {@link InterDataflowAnalysis} implementations.
@@ -117,11 +123,65 @@ public abstract class AbstractInterDataflowAnalysis<Method, Node, Fact>
     protected abstract Fact transferReturnEdge(ReturnEdge<Node> edge, Fact returnOut);
     // ----------------------------------------------------------------
 
+    /**
+     * Creates the solver specified by option "solver", i.e., "worklist"
+     * (FIFO work-list), "priority" (work-list ordered by node ranks),
+     * or "cs" (context-sensitive work-list over the contexts computed
+     * by the pointer analysis specified by option "pta").
+     */
+    private InterSolver<Method, Node, Fact> newSolver() {
+        String solver = getOptions().getString("solver");
+        if (solver == null || solver.equals("worklist")) {
+            return new InterSolver<>(this, icfg, false);
+        } else if (solver.equals("priority")) {
+            return new InterSolver<>(this, icfg, true);
+        } else if (solver.equals("cs")) {
+            return newCSSolver();
+        } else {
+            throw new ConfigException("Unknown inter-procedural solver: " + solver);
+        }
+    }
+
+    /**
+     * Creates a context-sensitive solver whose contexts are truncated
+     * to the length specified by option "k-limit" (negative for no limit).
+     */
+    @SuppressWarnings("unchecked")
+    private InterSolver<Method, Node, Fact> newCSSolver() {
+        String ptaId = getOptions().getString("pta");
+        if (ptaId == null) {
+            throw new ConfigException("Option \"pta\" is required by the" +
+                    " context-sensitive inter-procedural solver");
+        }
+        PointerAnalysisResult pta = World.get().getResult(ptaId);
+        int kLimit = getOptions().get("k-limit") != null ?
+                getOptions().getInt("k-limit") : -1;
+        return (InterSolver<Method, Node, Fact>) new CSInterSolver<>(
+                (InterDataflowAnalysis<Stmt, Fact>) this,
+                (ICFG<JMethod, Stmt>) icfg, pta.getCSCallGraph(), kLimit);
+    }
+
+    /**
+     * @return the ICFG to be analyzed. If option "lazy-icfg" is true,
+     * the edges of the ICFG are built on demand (see {@link LazyICFG}),
+     * and {@link ICFGBuilder} is not required by the analysis config,
+     * thus the full ICFG is never built. Otherwise, returns the ICFG
+     * built by {@link ICFGBuilder}.
+     */
+    @SuppressWarnings("unchecked")
+    protected ICFG<Method, Node> getICFG() {
+        if (getOptions().getBooleanOrDefault("lazy-icfg", false)) {
+            return (ICFG<Method, Node>) new LazyICFG(
+                    World.get().getResult(CallGraphBuilder.ID));
+        }
+        return World.get().getResult(ICFGBuilder.ID);
+    }
+
     @Override
     public Object analyze() {
-        icfg = World.get().getResult(ICFGBuilder.ID);
+        icfg = getICFG();
         initialize();
-        solver = new InterSolver<>(this, icfg);
+        solver = newSolver();
         DataflowResult<Node, Fact> result = solver.solve();
         finish();
         return result;
@@ -0,0 +1,307 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.inter;
+
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.graph.callgraph.CallGraph;
+import pascal.taie.analysis.graph.callgraph.Edge;
+import pascal.taie.analysis.graph.icfg.CallEdge;
+import pascal.taie.analysis.graph.icfg.ICFG;
+import pascal.taie.analysis.graph.icfg.ICFGEdge;
+import pascal.taie.analysis.graph.icfg.ReturnEdge;
+import pascal.taie.analysis.pta.core.cs.context.Context;
+import pascal.taie.analysis.pta.core.cs.context.ContextFactory;
+import pascal.taie.analysis.pta.core.cs.context.TrieContext;
+import pascal.taie.analysis.pta.core.cs.element.CSCallSite;
+import pascal.taie.analysis.pta.core.cs.element.CSMethod;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.MultiMap;
+import pascal.taie.util.collection.SetQueue;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+
+/**
+ * Context-sensitive solver for inter-procedural data-flow analysis.
+ * <p>
+ * Different from {@link InterSolver}, which propagates facts over the nodes
+ * of the ICFG, this solver propagates facts over (context, statement) pairs,
+ * where the contexts of each method are taken from the context-sensitive
+ * call graph computed by pointer analysis. Each pair inherits the
+ * intra-procedural edges of its statement, while the call and return edges
+ * only connect the pairs whose contexts are connected in the
+ * context-sensitive call graph, so that the facts of different calling
+ * contexts of a method are not merged.
+ * <p>
+ * The contexts longer than the k-limit are truncated to their last k
+ * elements (the most recent ones), and the facts are cached per context.
+ * When the solver finishes, the fact of each statement is the meet of
+ * its facts over all contexts of its containing method.
+ * A k-limit of 0 merges all contexts, and thus gives the same result
+ * as {@link InterSolver}.
+ */
+class CSInterSolver<Fact> extends InterSolver<JMethod, Stmt, Fact> {
+
+    private final InterDataflowAnalysis<Stmt, Fact> analysis;
+
+    private final ICFG<JMethod, Stmt> icfg;
+
+    private final CallGraph<CSCallSite, CSMethod> csCallGraph;
+
+    private final int kLimit;
+
+    /**
+     * Interns the truncated contexts, so that the contexts which have
+     * the same last k elements are mapped to the same context.
+     */
+    private final ContextFactory<Object> contextFactory = new TrieContext.Factory<>();
+
+    /**
+     * Facts of the statements under each context.
+     */
+    private final Map<Context, DataflowResult<Stmt, Fact>> facts = Maps.newMap();
+
+    /**
+     * Contexts of each reachable method.
+     */
+    private final MultiMap<JMethod, Context> contextsOf = Maps.newMultiMap();
+
+    private final MultiMap<CSNode, CSMethodKey> calleesOf = Maps.newMultiMap();
+
+    private final MultiMap<CSMethodKey, CSNode> callersOf = Maps.newMultiMap();
+
+    private Queue<CSNode> workList;
+
+    /**
+     * @param csCallGraph context-sensitive call graph which supplies
+     *                    the contexts of the methods
+     * @param kLimit      maximum length of the contexts, or a negative
+     *                    number if the contexts are not truncated
+     */
+    CSInterSolver(InterDataflowAnalysis<Stmt, Fact> analysis,
+                  ICFG<JMethod, Stmt> icfg,
+                  CallGraph<CSCallSite, CSMethod> csCallGraph,
+                  int kLimit) {
+        super(analysis, icfg);
+        this.analysis = analysis;
+        this.icfg = icfg;
+        this.csCallGraph = csCallGraph;
+        this.kLimit = kLimit;
+    }
+
+    @Override
+    DataflowResult<Stmt, Fact> solve() {
+        initialize();
+        doSolve();
+        return collectResult();
+    }
+
+    private void initialize() {
+        csCallGraph.reachableMethods().forEach(csMethod ->
+                contextsOf.put(csMethod.getMethod(), limit(csMethod.getContext())));
+        csCallGraph.edges().forEach(this::addCallEdge);
+        csCallGraph.entryMethods().forEach(csMethod -> {
+            Context context = limit(csMethod.getContext());
+            Stmt entry = icfg.getEntryOf(csMethod.getMethod());
+            factsOf(context).setOutFact(entry, analysis.newBoundaryFact(entry));
+        });
+    }
+
+    private void addCallEdge(Edge<CSCallSite, CSMethod> edge) {
+        CSCallSite csCallSite = edge.getCallSite();
+        CSMethod csCallee = edge.getCallee();
+        CSNode caller = new CSNode(limit(csCallSite.getContext()),
+                csCallSite.getCallSite());
+        CSMethodKey callee = new CSMethodKey(limit(csCallee.getContext()),
+                csCallee.getMethod());
+        calleesOf.put(caller, callee);
+        callersOf.put(callee, caller);
+    }
+
+    /**
+     * @return the last {@link #kLimit} elements of given context.
+     */
+    private Context limit(Context context) {
+        return kLimit < 0 ? context : contextFactory.makeLastK(context, kLimit);
+    }
+
+    private void doSolve() {
+        workList = new SetQueue<>();
+        for (Stmt node : icfg) {
+            addWorkList(node);
+        }
+        while (!workList.isEmpty()) {
+            CSNode node = workList.remove();
+            Fact in = getInFact(node);
+            for (ICFGEdge<Stmt> edge : icfg.getInEdgesOf(node.stmt())) {
+                for (CSNode source : sourcesOf(node.context(), edge)) {
+                    analysis.meetInto(
+                            analysis.transferEdge(edge, getOutFact(source)), in);
+                }
+            }
+            if (analysis.transferNode(node.stmt(), in, getOutFact(node))) {
+                for (ICFGEdge<Stmt> edge : icfg.getOutEdgesOf(node.stmt())) {
+                    for (CSNode target : targetsOf(node.context(), edge)) {
+                        workList.add(target);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the (context, statement) pairs from which facts flow into
+     * the target of {@code edge} under given context.
+     */
+    private Iterable<CSNode> sourcesOf(Context context, ICFGEdge<Stmt> edge) {
+        if (edge instanceof CallEdge<Stmt> callEdge) {
+            // the callers which call the callee under given context
+            CSMethodKey callee = new CSMethodKey(context, callEdge.getCallee());
+            return callersOf.get(callee)
+                    .stream()
+                    .filter(caller -> caller.stmt().equals(edge.getSource()))
+                    .toList();
+        } else if (edge instanceof ReturnEdge<Stmt> returnEdge) {
+            // the exits of the callee under the contexts it is called with
+            JMethod callee = icfg.getContainingMethodOf(edge.getSource());
+            return calleesOf.get(new CSNode(context, returnEdge.getCallSite()))
+                    .stream()
+                    .filter(key -> key.method().equals(callee))
+                    .map(key -> new CSNode(key.context(), edge.getSource()))
+                    .toList();
+        } else {
+            return List.of(new CSNode(context, edge.getSource()));
+        }
+    }
+
+    /**
+     * @return the (context, statement) pairs into which facts flow from
+     * the source of {@code edge} under given context.
+     */
+    private Iterable<CSNode> targetsOf(Context context, ICFGEdge<Stmt> edge) {
+        if (edge instanceof CallEdge<Stmt> callEdge) {
+            JMethod callee = callEdge.getCallee();
+            return calleesOf.get(new CSNode(context, edge.getSource()))
+                    .stream()
+                    .filter(key -> key.method().equals(callee))
+                    .map(key -> new CSNode(key.context(), edge.getTarget()))
+                    .toList();
+        } else if (edge instanceof ReturnEdge<Stmt> returnEdge) {
+            JMethod callee = icfg.getContainingMethodOf(edge.getSource());
+            Stmt callSite = returnEdge.getCallSite();
+            return callersOf.get(new CSMethodKey(context, callee))
+                    .stream()
+                    .filter(caller -> caller.stmt().equals(callSite))
+                    .map(caller -> new CSNode(caller.context(), edge.getTarget()))
+                    .toList();
+        } else {
+            return List.of(new CSNode(context, edge.getTarget()));
+        }
+    }
+
+    private DataflowResult<Stmt, Fact> factsOf(Context context) {
+        return facts.computeIfAbsent(context, c -> new DataflowResult<>());
+    }
+
+    private Fact getInFact(CSNode node) {
+        DataflowResult<Stmt, Fact> result = factsOf(node.context());
+        Fact fact = result.getInFact(node.stmt());
+        if (fact == null) {
+            fact = analysis.newInitialFact();
+            result.setInFact(node.stmt(), fact);
+        }
+        return fact;
+    }
+
+    private Fact getOutFact(CSNode node) {
+        DataflowResult<Stmt, Fact> result = factsOf(node.context());
+        Fact fact = result.getOutFact(node.stmt());
+        if (fact == null) {
+            fact = analysis.newInitialFact();
+            result.setOutFact(node.stmt(), fact);
+        }
+        return fact;
+    }
+
+    /**
+     * Merges the facts of each statement over all contexts.
+     */
+    private DataflowResult<Stmt, Fact> collectResult() {
+        DataflowResult<Stmt, Fact> result = new DataflowResult<>();
+        for (Stmt node : icfg) {
+            result.setInFact(node, getNodeInFact(node));
+            result.setOutFact(node, getNodeOutFact(node));
+        }
+        return result;
+    }
+
+    /**
+     * @return the meet of the in facts of {@code node} over all contexts.
+     */
+    @Override
+    public Fact getNodeInFact(Stmt node) {
+        Fact fact = analysis.newInitialFact();
+        for (Context context : contextsOf.get(icfg.getContainingMethodOf(node))) {
+            analysis.meetInto(getInFact(new CSNode(context, node)), fact);
+        }
+        return fact;
+    }
+
+    /**
+     * @return the meet of the out facts of {@code node} over all contexts.
+     */
+    @Override
+    public Fact getNodeOutFact(Stmt node) {
+        Fact fact = analysis.newInitialFact();
+        for (Context context : contextsOf.get(icfg.getContainingMethodOf(node))) {
+            analysis.meetInto(getOutFact(new CSNode(context, node)), fact);
+        }
+        return fact;
+    }
+
+    /**
+     * Adds {@code node} under all contexts of its containing method
+     * to the work-list.
+     */
+    @Override
+    public void addWorkList(Stmt node) {
+        for (Context context : contextsOf.get(icfg.getContainingMethodOf(node))) {
+            workList.add(new CSNode(context, node));
+        }
+    }
+
+    /**
+     * A statement under a context.
+     */
+    private record CSNode(Context context, Stmt stmt) {
+    }
+
+    /**
+     * A method under a (possibly truncated) context.
+     */
+    private record CSMethodKey(Context context, JMethod method) {
+    }
+}
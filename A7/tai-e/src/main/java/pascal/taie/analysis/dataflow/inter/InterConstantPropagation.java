@@ -37,11 +37,13 @@ package pascal.taie.analysis.dataflow.inter;
         import pascal.taie.ir.IR;
         import pascal.taie.ir.exp.*;
         import pascal.taie.ir.stmt.*;
+        import pascal.taie.language.classes.JField;
         import pascal.taie.language.classes.JMethod;
-        import pascal.taie.util.collection.SetQueue;
+        import pascal.taie.util.collection.Maps;
+        import pascal.taie.util.collection.MultiMap;
+        import pascal.taie.util.collection.Pair;
 
         import java.util.*;
-        import java.util.stream.Collectors;
 
 /**
  * Implementation of interprocedural constant propagation for int values.
@@ -53,9 +55,25 @@ public class InterConstantPropagation extends
 
     private final ConstantPropagation cp;
 
-    private Map<LoadField, Set<StoreField>> insFieldAlias, staFieldAlias;
+    /**
+     * Stores which may write the values read by each field load.
+     */
+    private MultiMap<LoadField, StoreField> insFieldAlias, staFieldAlias;
 
-    private Map<LoadArray, Set<StoreArray>> possibleArrayAlias;
+    /**
+     * Loads which may read the values written by each field store.
+     */
+    private MultiMap<StoreField, LoadField> fieldLoadsOf;
+
+    /**
+     * Stores which may write the arrays read by each array load.
+     */
+    private MultiMap<LoadArray, StoreArray> possibleArrayAlias;
+
+    /**
+     * Loads which may read the arrays written by each array store.
+     */
+    private MultiMap<StoreArray, LoadArray> arrayLoadsOf;
 
     public InterConstantPropagation(AnalysisConfig config) {
         super(config);
@@ -66,64 +84,64 @@ public class InterConstantPropagation extends
     protected void initialize() {
         String ptaId = getOptions().getString("pta");
         PointerAnalysisResult pta = World.get().getResult(ptaId);
-        // You can do initialization work here
-        Queue<StoreField> insStoreFieldList = new SetQueue<>(), staStoreFieldList = new SetQueue<>();
-        Queue<LoadField> insLoadFieldList = new SetQueue<>(), staLoadFieldList = new SetQueue<>();
-        Queue<LoadArray> loadArrays = new SetQueue<>();
-        Queue<StoreArray> storeArrays = new SetQueue<>();
+        // index the stores by the objects and fields (or arrays) they
+        // may write, so that the aliases of each load are obtained by
+        // looking up the index with the objects its base points to
+        MultiMap<Pair<Obj, JField>, StoreField> insStores = Maps.newMultiMap();
+        MultiMap<JField, StoreField> staStores = Maps.newMultiMap();
+        MultiMap<Obj, StoreArray> arrayStores = Maps.newMultiMap();
+        List<LoadField> loadFields = new ArrayList<>();
+        List<LoadArray> loadArrays = new ArrayList<>();
         for (Stmt stmt : icfg) {
             if (stmt instanceof LoadField loadField) {
-                if (loadField.isStatic()) {
-                    staLoadFieldList.add(loadField);
-                }
-                else {
-                    insLoadFieldList.add(loadField);
-                }
-            }
-            else if (stmt instanceof StoreField storeField) {
+                loadFields.add(loadField);
+            } else if (stmt instanceof StoreField storeField) {
+                JField field = storeField.getFieldRef().resolve();
                 if (storeField.isStatic()) {
-                    staStoreFieldList.add(storeField);
-                }
-                else {
-                    insStoreFieldList.add(storeField);
+                    staStores.put(field, storeField);
+                } else {
+                    Var base = ((InstanceFieldAccess) storeField.getFieldAccess()).getBase();
+                    for (Obj obj : pta.getPointsToSet(base)) {
+                        insStores.put(new Pair<>(obj, field), storeField);
+                    }
                 }
-            }
-            else if (stmt instanceof LoadArray loadArray) {
+            } else if (stmt instanceof LoadArray loadArray) {
                 loadArrays.add(loadArray);
-            }
-            else if (stmt instanceof StoreArray storeArray) {
-                storeArrays.add(storeArray);
-            }
-        }
-        insFieldAlias = new HashMap<>();
-        for (LoadField loadField : insLoadFieldList) {
-            Set<StoreField> storeSet = new HashSet<>();
-            insFieldAlias.put(loadField, storeSet);
-            for (StoreField storeField : insStoreFieldList) {
-                // is alias
-                if (isFieldAlias(loadField, storeField, pta)) {
-                    insFieldAlias.get(loadField).add(storeField);
+            } else if (stmt instanceof StoreArray storeArray) {
+                Var base = storeArray.getArrayAccess().getBase();
+                for (Obj obj : pta.getPointsToSet(base)) {
+                    arrayStores.put(obj, storeArray);
                 }
             }
         }
-        staFieldAlias = new HashMap<>();
-        for (LoadField loadField : staLoadFieldList) {
-            Set<StoreField> storeSet = new HashSet<>();
-            staFieldAlias.put(loadField, storeSet);
-            for (StoreField storeField : staStoreFieldList) {
-                // the same field
-                if (loadField.getFieldRef().resolve().equals(storeField.getFieldRef().resolve())) {
-                    staFieldAlias.get(loadField).add(storeField);
+        insFieldAlias = Maps.newMultiMap();
+        staFieldAlias = Maps.newMultiMap();
+        fieldLoadsOf = Maps.newMultiMap();
+        for (LoadField loadField : loadFields) {
+            JField field = loadField.getFieldRef().resolve();
+            if (loadField.isStatic()) {
+                for (StoreField storeField : staStores.get(field)) {
+                    staFieldAlias.put(loadField, storeField);
+                    fieldLoadsOf.put(storeField, loadField);
+                }
+            } else {
+                Var base = ((InstanceFieldAccess) loadField.getFieldAccess()).getBase();
+                for (Obj obj : pta.getPointsToSet(base)) {
+                    for (StoreField storeField : insStores.get(new Pair<>(obj, field))) {
+                        insFieldAlias.put(loadField, storeField);
+                        fieldLoadsOf.put(storeField, loadField);
+                    }
                 }
             }
         }
-        possibleArrayAlias = new HashMap<>();
+        possibleArrayAlias = Maps.newMultiMap();
+        arrayLoadsOf = Maps.newMultiMap();
         for (LoadArray loadArray : loadArrays) {
-            Set<StoreArray> storeSet = new HashSet<>();
-            possibleArrayAlias.put(loadArray, storeSet);
-            for (StoreArray storeArray : storeArrays) {
-                if (maybeArrayAlias(loadArray, storeArray, pta)) {
-                    possibleArrayAlias.get(loadArray).add(storeArray);
+            Var base = loadArray.getArrayAccess().getBase();
+            for (Obj obj : pta.getPointsToSet(base)) {
+                for (StoreArray storeArray : arrayStores.get(obj)) {
+                    possibleArrayAlias.put(loadArray, storeArray);
+                    arrayLoadsOf.put(storeArray, loadArray);
                 }
             }
         }
@@ -171,20 +189,7 @@ public class InterConstantPropagation extends
         else if (stmt instanceof StoreField storeField) {
             change = identityTrandfer(in, out);
             if (change) {
-                if (storeField.isStatic()) {
-                    for (LoadField l : staFieldAlias.keySet()) {
-                        if (staFieldAlias.get(l).contains(storeField)) {
-                            solver.addWorkList(l);
-                        }
-                    }
-                }
-                else {
-                    for (LoadField l : insFieldAlias.keySet()) {
-                        if (insFieldAlias.get(l).contains(storeField)) {
-                            solver.addWorkList(l);
-                        }
-                    }
-                }
+                fieldLoadsOf.get(storeField).forEach(solver::addWorkList);
             }
         }
         else if (stmt instanceof LoadArray loadArray) {
@@ -193,11 +198,7 @@ public class InterConstantPropagation extends
         else if (stmt instanceof StoreArray storeArray) {
             change = identityTrandfer(in, out);
             if (change) {
-                for (LoadArray l : possibleArrayAlias.keySet()) {
-                    if (possibleArrayAlias.get(l).contains(storeArray)) {
-                        solver.addWorkList(l);
-                    }
-                }
+                arrayLoadsOf.get(storeArray).forEach(solver::addWorkList);
             }
         }
         else {
@@ -268,7 +269,7 @@ public class InterConstantPropagation extends
     }
 
     // helper function
-    private boolean transferLoadField(LoadField loadField, CPFact in, CPFact out, Map<LoadField, Set<StoreField>> aliasMap) {
+    private boolean transferLoadField(LoadField loadField, CPFact in, CPFact out, MultiMap<LoadField, StoreField> aliasMap) {
         boolean change = identityTrandfer(in, out);
         for (StoreField storeField : aliasMap.get(loadField)) {
             Value storeValue = ConstantPropagation.evaluate(storeField.getRValue(), solver.getNodeInFact(storeField));
@@ -296,34 +297,6 @@ public class InterConstantPropagation extends
         return change;
     }
 
-    private boolean isFieldAlias(LoadField load, StoreField store, PointerAnalysisResult pta) {
-        FieldAccess loadfieldAccess = load.getFieldAccess();
-        FieldAccess storeFieldAccess = store.getFieldAccess();
-        Var loadBase = null, storeBase = null;
-        if (loadfieldAccess instanceof InstanceFieldAccess) {
-            loadBase = ((InstanceFieldAccess) loadfieldAccess).getBase();
-        }
-        if (storeFieldAccess instanceof InstanceFieldAccess) {
-            storeBase = ((InstanceFieldAccess) storeFieldAccess).getBase();
-        }
-        Set<Obj> loadPts = pta.getPointsToSet(loadBase), storePts = pta.getPointsToSet(storeBase);
-        // weather base has intersection
-        boolean res = intersect(loadPts, storePts);
-        if (res) {
-            // weather visit the same field
-            if (load.getFieldRef().resolve().equals(store.getFieldRef().resolve())) {
-                return res;
-            }
-        }
-        return false;
-    }
-
-    private boolean maybeArrayAlias(LoadArray load, StoreArray store, PointerAnalysisResult pta) {
-        ArrayAccess laa = load.getArrayAccess(), saa = store.getArrayAccess();
-        Var loadBase = laa.getBase(), storeBase = saa.getBase();
-        return intersect(pta.getPointsToSet(loadBase), pta.getPointsToSet(storeBase));
-    }
-
     private boolean isArrayAlias(LoadArray load, StoreArray store) {
         Var loadIndex = load.getArrayAccess().getIndex(), storeIndex = store.getArrayAccess().getIndex();
         Value liValue = ConstantPropagation.evaluate(loadIndex, solver.getNodeInFact(load));
@@ -336,10 +309,6 @@ public class InterConstantPropagation extends
         }
         return true;
     }
-    private boolean intersect(Set<Obj> s1, Set<Obj> s2) {
-        Set<Obj> intersect = s1.stream().filter(s2::contains).collect(Collectors.toSet());
-        return !intersect.isEmpty();
-    }
 
     private boolean identityTrandfer(CPFact in, CPFact out) {
         boolean change = false;
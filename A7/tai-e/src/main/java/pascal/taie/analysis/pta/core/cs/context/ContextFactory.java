@@ -0,0 +1,59 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.core.cs.context;
+
+import java.util.List;
+
+/**
+ * Creates contexts. Contexts created by the same factory are interned,
+ * thus two such contexts are equal if and only if they are identical.
+ *
+ * @param <T> type of context elements
+ */
+public interface ContextFactory<T> {
+
+    /**
+     * @return the empty context.
+     */
+    Context getEmptyContext();
+
+    /**
+     * @return the context that consists of given context elements.
+     */
+    Context make(List<T> elements);
+
+    /**
+     * @return the context that consists of the last {@code k} elements
+     * of given context.
+     */
+    Context makeLastK(Context context, int k);
+
+    /**
+     * Appends a context element to given context, and limits the length
+     * of the result by dropping the leading elements.
+     *
+     * @return the context that consists of the last {@code limit} elements
+     * of {@code parent + [elem]}.
+     */
+    Context append(Context parent, T elem, int limit);
+}
@@ -23,7 +23,6 @@
 package pascal.taie.analysis.pta.core.cs.selector;
 
 import pascal.taie.analysis.pta.core.cs.context.Context;
-import pascal.taie.analysis.pta.core.cs.context.ListContext;
 import pascal.taie.analysis.pta.core.cs.element.CSCallSite;
 import pascal.taie.analysis.pta.core.cs.element.CSMethod;
 import pascal.taie.analysis.pta.core.cs.element.CSObj;
@@ -34,12 +33,7 @@ import pascal.taie.language.classes.JMethod;
 /**
  * Implementation of 2-call-site sensitivity.
  */
-public class _2CallSelector implements ContextSelector {
-
-    @Override
-    public Context getEmptyContext() {
-        return ListContext.make();
-    }
+public class _2CallSelector extends AbstractContextSelector<Invoke> {
 
     @Override
     public Context selectContext(CSCallSite callSite, JMethod callee) {
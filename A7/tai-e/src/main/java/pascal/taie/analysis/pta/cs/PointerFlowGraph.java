@@ -23,20 +23,105 @@
 package pascal.taie.analysis.pta.cs;
 
 import pascal.taie.analysis.pta.core.cs.element.Pointer;
+import pascal.taie.util.collection.MapSetMultiMap;
 import pascal.taie.util.collection.Maps;
 import pascal.taie.util.collection.MultiMap;
+import pascal.taie.util.collection.Sets;
+import pascal.taie.util.graph.SCC;
+import pascal.taie.util.graph.SimpleGraph;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Represents pointer flow graph in context-sensitive pointer analysis.
+ * <p>
+ * If cycle elimination is enabled, then this PFG periodically detects
+ * the strongly connected components (i.e., copy cycles) among its nodes,
+ * and collapses each of them into one node, represented by one of the
+ * pointers in the cycle. The pointers in a collapsed cycle always have
+ * the same points-to set, and the solver is responsible for making them
+ * share the points-to set (see {@link #collapseCycles()}).
+ * The edges are always kept between representatives, thus the successors
+ * of any pointer are the successors of its representative.
+ * <p>
+ * A concurrent PFG allows edges to be added and successors to be queried
+ * by multiple threads, but {@link #collapseCycles()} must not run
+ * concurrently with any other method.
  */
 class PointerFlowGraph {
 
+    /**
+     * Default minimum number of new edges which triggers cycle detection.
+     */
+    static final int DEFAULT_MIN_NEW_EDGES = 64;
+
     /**
      * Map from a pointer (node) to its successors in PFG.
      */
-    private final MultiMap<Pointer, Pointer> successors = Maps.newMultiMap();
+    private MultiMap<Pointer, Pointer> successors;
+
+    private final boolean cycleElimination;
+
+    private final boolean concurrent;
+
+    /**
+     * Minimum number of new edges which triggers cycle detection.
+     */
+    private final int minNewEdges;
+
+    /**
+     * Map from each pointer in a collapsed cycle to its representative.
+     * Representatives are not in this map.
+     */
+    private final Map<Pointer, Pointer> parents = Maps.newMap();
+
+    /**
+     * Map from each representative of collapsed cycles to all pointers
+     * (including itself) it represents.
+     */
+    private final MultiMap<Pointer, Pointer> members = Maps.newMultiMap();
+
+    /**
+     * Number of edges in this PFG.
+     */
+    private final AtomicInteger edges = new AtomicInteger();
+
+    /**
+     * Number of edges added since last cycle detection.
+     */
+    private final AtomicInteger newEdges = new AtomicInteger();
+
+    PointerFlowGraph() {
+        this(false, DEFAULT_MIN_NEW_EDGES);
+    }
+
+    PointerFlowGraph(boolean cycleElimination, int minNewEdges) {
+        this(cycleElimination, minNewEdges, false);
+    }
+
+    /**
+     * @param cycleElimination whether detect and collapse cycles
+     * @param minNewEdges      minimum number of new edges which triggers
+     *                         cycle detection
+     * @param concurrent       whether edges may be added concurrently
+     */
+    PointerFlowGraph(boolean cycleElimination, int minNewEdges,
+                     boolean concurrent) {
+        this.cycleElimination = cycleElimination;
+        this.minNewEdges = minNewEdges;
+        this.concurrent = concurrent;
+        this.successors = newSuccessors();
+    }
+
+    private MultiMap<Pointer, Pointer> newSuccessors() {
+        return concurrent ?
+                new MapSetMultiMap<>(Maps.newConcurrentMap(), Sets::newConcurrentSet) :
+                Maps.newMultiMap();
+    }
 
     /**
      * Adds an edge (source -> target) to this PFG.
@@ -45,13 +130,107 @@ class PointerFlowGraph {
      * otherwise false.
      */
     boolean addEdge(Pointer source, Pointer target) {
-        return successors.put(source, target);
+        if (!cycleElimination) {
+            if (successors.put(source, target)) {
+                edges.incrementAndGet();
+                return true;
+            }
+            return false;
+        }
+        Pointer s = getRepresentativeOf(source);
+        Pointer t = getRepresentativeOf(target);
+        if (s != t && successors.put(s, t)) {
+            edges.incrementAndGet();
+            newEdges.incrementAndGet();
+            return true;
+        }
+        return false;
     }
 
     /**
      * @return successors of given pointer in the PFG.
      */
     Set<Pointer> getSuccsOf(Pointer pointer) {
-        return successors.get(pointer);
+        return successors.get(getRepresentativeOf(pointer));
+    }
+
+    /**
+     * @return the pointer which represents the collapsed cycle
+     * containing given pointer, or the pointer itself if it is not
+     * in any collapsed cycle.
+     */
+    Pointer getRepresentativeOf(Pointer pointer) {
+        Pointer rep = parents.get(pointer);
+        return rep != null ? rep : pointer;
+    }
+
+    /**
+     * @return all pointers which share the points-to set with given
+     * pointer, including itself.
+     */
+    Set<Pointer> getMembersOf(Pointer pointer) {
+        Pointer rep = getRepresentativeOf(pointer);
+        Set<Pointer> result = members.get(rep);
+        return result.isEmpty() ? Set.of(pointer) : result;
+    }
+
+    /**
+     * @return true if enough edges have been added since last cycle
+     * detection, so that the cost of detecting cycles (linear in the
+     * size of this PFG) can be amortized by the new edges.
+     */
+    boolean needsCycleDetection() {
+        return cycleElimination &&
+                newEdges.get() >= Math.max(minNewEdges, edges.get() / 4);
+    }
+
+    /**
+     * Detects the cycles in this PFG, and collapses each of them into
+     * its representative. After this call, the caller should merge the
+     * points-to sets of the members of each new representative.
+     *
+     * @return the representatives of the newly collapsed cycles.
+     */
+    List<Pointer> collapseCycles() {
+        newEdges.set(0);
+        SimpleGraph<Pointer> graph = new SimpleGraph<>();
+        successors.forEach((source, target) -> {
+            graph.addNode(source);
+            graph.addNode(target);
+            graph.addEdge(source, target);
+        });
+        List<Pointer> reps = new ArrayList<>();
+        for (List<Pointer> scc : new SCC<>(graph).getTrueComponents()) {
+            if (scc.size() < 2) {
+                continue;
+            }
+            Pointer rep = scc.get(0);
+            for (Pointer node : scc) {
+                if (node != rep) {
+                    // members of a collapsed node move to the new representative
+                    for (Pointer member : getMembersOf(node)) {
+                        parents.put(member, rep);
+                        members.put(rep, member);
+                    }
+                    members.removeAll(node);
+                }
+            }
+            members.put(rep, rep);
+            reps.add(rep);
+        }
+        if (!reps.isEmpty()) {
+            // redirect the edges to the representatives
+            MultiMap<Pointer, Pointer> oldSuccessors = successors;
+            successors = newSuccessors();
+            edges.set(0);
+            oldSuccessors.forEach((source, target) -> {
+                Pointer s = getRepresentativeOf(source);
+                Pointer t = getRepresentativeOf(target);
+                if (s != t && successors.put(s, t)) {
+                    edges.incrementAndGet();
+                }
+            });
+        }
+        return reps;
     }
 }
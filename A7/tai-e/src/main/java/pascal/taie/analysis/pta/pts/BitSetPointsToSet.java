@@ -0,0 +1,274 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.pts;
+
+import pascal.taie.analysis.pta.core.cs.element.CSObj;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Points-to set represented as a sparse bit set over the IDs of objects
+ * (given by {@link CSObjIndexer}).
+ * <p>
+ * The bits are stored in 64-bit words, and only the non-zero words are
+ * kept, together with their word indexes (i.e., ID / 64) in ascending
+ * order. Thus, the set costs memory proportional to the number of
+ * non-empty words instead of the number of all objects, and the set
+ * operations between two bit sets are performed word by word.
+ */
+class BitSetPointsToSet implements PointsToSet {
+
+    private static final int[] EMPTY_KEYS = new int[0];
+
+    private static final long[] EMPTY_WORDS = new long[0];
+
+    private final CSObjIndexer indexer;
+
+    /**
+     * Indexes of non-zero words, in ascending order.
+     */
+    private int[] keys = EMPTY_KEYS;
+
+    /**
+     * Non-zero words, {@code words[i]} is the word at index {@code keys[i]}.
+     */
+    private long[] words = EMPTY_WORDS;
+
+    /**
+     * Number of words in use.
+     */
+    private int nWords;
+
+    /**
+     * Number of objects in this set.
+     */
+    private int size;
+
+    BitSetPointsToSet(CSObjIndexer indexer) {
+        this.indexer = indexer;
+    }
+
+    @Override
+    public boolean addObject(CSObj obj) {
+        int id = indexer.getID(obj);
+        int key = id >>> 6;
+        long bit = 1L << id;
+        int i = Arrays.binarySearch(keys, 0, nWords, key);
+        if (i >= 0) {
+            if ((words[i] & bit) != 0) {
+                return false;
+            }
+            words[i] |= bit;
+        } else {
+            insertWord(-(i + 1), key, bit);
+        }
+        ++size;
+        return true;
+    }
+
+    @Override
+    public boolean addAll(PointsToSet pts) {
+        return !addAllDiff(pts).isEmpty();
+    }
+
+    /**
+     * If {@code pts} is also a bit set over the same IDs, then its words
+     * are compared with the words of this set at the same indexes,
+     * and only the non-zero differences are merged into this set.
+     */
+    @Override
+    public PointsToSet addAllDiff(PointsToSet pts) {
+        if (!(pts instanceof BitSetPointsToSet other)
+                || other.indexer != indexer) {
+            return PointsToSet.super.addAllDiff(pts);
+        }
+        BitSetPointsToSet diff = new BitSetPointsToSet(indexer);
+        int missing = 0;
+        for (int i = 0, j = 0; j < other.nWords; ++j) {
+            int key = other.keys[j];
+            while (i < nWords && keys[i] < key) {
+                ++i;
+            }
+            long word = other.words[j];
+            if (i < nWords && keys[i] == key) {
+                word &= ~words[i];
+            } else {
+                ++missing;
+            }
+            if (word != 0) {
+                diff.appendWord(key, word);
+            }
+        }
+        if (!diff.isEmpty()) {
+            union(diff, missing);
+        }
+        return diff;
+    }
+
+    /**
+     * Unions the words of {@code diff}, which are disjoint with this set,
+     * into this set.
+     *
+     * @param missing upper bound of the number of words in {@code diff}
+     *                whose indexes are absent in this set.
+     */
+    private void union(BitSetPointsToSet diff, int missing) {
+        if (missing == 0) {
+            // all words of diff are present in this set, merge them in place
+            for (int i = 0, j = 0; j < diff.nWords; ++j) {
+                while (keys[i] < diff.keys[j]) {
+                    ++i;
+                }
+                words[i] |= diff.words[j];
+            }
+        } else {
+            int[] newKeys = new int[nWords + missing];
+            long[] newWords = new long[nWords + missing];
+            int i = 0, j = 0, n = 0;
+            while (i < nWords || j < diff.nWords) {
+                if (j == diff.nWords
+                        || (i < nWords && keys[i] < diff.keys[j])) {
+                    newKeys[n] = keys[i];
+                    newWords[n++] = words[i++];
+                } else if (i == nWords || diff.keys[j] < keys[i]) {
+                    newKeys[n] = diff.keys[j];
+                    newWords[n++] = diff.words[j++];
+                } else {
+                    newKeys[n] = keys[i];
+                    newWords[n++] = words[i++] | diff.words[j++];
+                }
+            }
+            keys = newKeys;
+            words = newWords;
+            nWords = n;
+        }
+        size += diff.size;
+    }
+
+    private void insertWord(int pos, int key, long word) {
+        if (nWords == keys.length) {
+            int capacity = Math.max(4, nWords + (nWords >> 1));
+            keys = Arrays.copyOf(keys, capacity);
+            words = Arrays.copyOf(words, capacity);
+        }
+        System.arraycopy(keys, pos, keys, pos + 1, nWords - pos);
+        System.arraycopy(words, pos, words, pos + 1, nWords - pos);
+        keys[pos] = key;
+        words[pos] = word;
+        ++nWords;
+    }
+
+    /**
+     * Appends a word whose index is larger than the indexes of all
+     * words in this set.
+     */
+    private void appendWord(int key, long word) {
+        insertWord(nWords, key, word);
+        size += Long.bitCount(word);
+    }
+
+    @Override
+    public boolean contains(CSObj obj) {
+        int id = indexer.getID(obj);
+        int i = Arrays.binarySearch(keys, 0, nWords, id >>> 6);
+        return i >= 0 && (words[i] & (1L << id)) != 0;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Set<CSObj> getObjects() {
+        return new AbstractSet<>() {
+
+            @Override
+            public boolean contains(Object o) {
+                return o instanceof CSObj obj && BitSetPointsToSet.this.contains(obj);
+            }
+
+            @Override
+            public Iterator<CSObj> iterator() {
+                return BitSetPointsToSet.this.iterator();
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    @Override
+    public Stream<CSObj> objects() {
+        return StreamSupport.stream(Spliterators.spliterator(iterator(), size,
+                Spliterator.DISTINCT | Spliterator.NONNULL), false);
+    }
+
+    @Override
+    public Iterator<CSObj> iterator() {
+        return new Iterator<>() {
+
+            private int i = 0;
+
+            private long word = nWords > 0 ? words[0] : 0;
+
+            @Override
+            public boolean hasNext() {
+                while (word == 0 && i + 1 < nWords) {
+                    word = words[++i];
+                }
+                return word != 0;
+            }
+
+            @Override
+            public CSObj next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                int id = (keys[i] << 6) + Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+                return indexer.getObject(id);
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        return getObjects().toString();
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.pts;
+
+import pascal.taie.analysis.pta.core.cs.element.CSObj;
+import pascal.taie.util.IDProvider;
+import pascal.taie.util.collection.Maps;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Assigns dense IDs (starting from 0) to {@link CSObj}s in the order
+ * they are first queried, so that the objects can be stored as bits
+ * in {@link BitSetPointsToSet}, and maps the IDs back to the objects.
+ * <p>
+ * This class is thread-safe. Looking up the ID of a known object or
+ * the object of a known ID takes no lock.
+ */
+class CSObjIndexer implements IDProvider<CSObj> {
+
+    private final Map<CSObj, Integer> ids = Maps.newConcurrentMap();
+
+    /**
+     * Objects indexed by their IDs. The array is replaced (never modified
+     * in place below {@link #size}) when it grows, so that threads which
+     * read it without lock see every object whose ID they have obtained.
+     */
+    private volatile CSObj[] objects = new CSObj[64];
+
+    /**
+     * Number of indexed objects, guarded by this indexer.
+     */
+    private int size = 0;
+
+    @Override
+    public int getID(CSObj obj) {
+        Integer id = ids.get(obj);
+        return id != null ? id : assignID(obj);
+    }
+
+    private synchronized int assignID(CSObj obj) {
+        Integer id = ids.get(obj);
+        if (id == null) {
+            CSObj[] objs = objects;
+            if (size == objs.length) {
+                objs = Arrays.copyOf(objs, size * 2);
+            }
+            id = size++;
+            objs[id] = obj;
+            objects = objs;
+            ids.put(obj, id);
+        }
+        return id;
+    }
+
+    /**
+     * @return the object whose ID is {@code id}.
+     */
+    CSObj getObject(int id) {
+        return objects[id];
+    }
+}
@@ -31,9 +31,17 @@ public class InterCPAliasTest {
     private static final String CLASS_PATH = "src/test/resources/dataflow/constprop/alias";
 
     void test(String inputClass) {
+        test(inputClass, "");
+    }
+
+    void test(String inputClass, String solverOpts) {
+        test(inputClass, solverOpts, "");
+    }
+
+    void test(String inputClass, String solverOpts, String ptaOpts) {
         Tests.test(inputClass, CLASS_PATH, InterConstantPropagation.ID,
-                "edge-refine:false;alias-aware:true;pta:cspta",
-                "-a", "cspta=cs:2-obj", "-a", "cg=algorithm:cspta"
+                "edge-refine:false;alias-aware:true;pta:cspta" + solverOpts,
+                "-a", "cspta=cs:2-obj" + ptaOpts, "-a", "cg=algorithm:cspta"
                 //, "-a", "icfg=dump:true" // <-- uncomment this code if you want
                                            // to output ICFGs for the test cases
         );
@@ -83,4 +91,46 @@ public class InterCPAliasTest {
     public void testStaticFieldMultiStores() {
         test("StaticFieldMultiStores");
     }
+
+    /**
+     * The context-sensitive solver merges all contexts under k-limit 0,
+     * thus its results should be the same as the ones of default solver.
+     */
+    @Test
+    public void testCSSolverObjSens() {
+        test("ObjSens", ";solver:cs;k-limit:0");
+    }
+
+    @Test
+    public void testCSSolverInterprocedural2() {
+        test("Interprocedural2", ";solver:cs;k-limit:0");
+    }
+
+    /**
+     * Under k-limit 1, the two calls of id() are analyzed under different
+     * receiver contexts, thus the results of the calls are not merged.
+     */
+    @Test
+    public void testCSSolverCtxSens() {
+        test("CtxSens", ";solver:cs;k-limit:1");
+    }
+
+    @Test
+    public void testCSSolverCtxSensNoLimit() {
+        test("CtxSens", ";solver:cs");
+    }
+
+    /**
+     * The pointer analysis processes its work list by multiple threads,
+     * which should not change the aliases found by it.
+     */
+    @Test
+    public void testParallelPTAInstanceField() {
+        test("InstanceField", "", ";threads:4");
+    }
+
+    @Test
+    public void testParallelPTAArrayLoops() {
+        test("ArrayLoops", "", ";threads:4;pts:bitset");
+    }
 }
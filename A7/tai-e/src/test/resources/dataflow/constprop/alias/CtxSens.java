@@ -0,0 +1,15 @@
+class CtxSens {
+    public static void main(String[] args) {
+        A a1 = new A();
+        A a2 = new A();
+        int x = a1.id(1);
+        int y = a2.id(2);
+    }
+
+    static class A {
+
+        int id(int n) {
+            return n;
+        }
+    }
+}
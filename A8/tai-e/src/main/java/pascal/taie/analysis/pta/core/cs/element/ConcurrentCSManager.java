@@ -0,0 +1,168 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.core.cs.element;
+
+import pascal.taie.analysis.pta.core.cs.context.Context;
+import pascal.taie.analysis.pta.core.heap.Obj;
+import pascal.taie.analysis.pta.pts.PointsToSetFactory;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.language.classes.JField;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.collection.Maps;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.BiFunction;
+
+/**
+ * {@link CSManager} which can be queried by multiple threads concurrently.
+ * <p>
+ * Like {@code MapBasedCSManager}, it creates each element once and
+ * initializes the points-to sets of new pointers, but keeps the elements
+ * in concurrent maps, so that all threads which query the same element
+ * receive the same instance, and the points-to set of the instance is
+ * visible to them.
+ */
+public class ConcurrentCSManager implements CSManager {
+
+    private final ConcurrentMap<Var, ConcurrentMap<Context, CSVar>> vars = Maps.newConcurrentMap();
+
+    private final ConcurrentMap<Obj, ConcurrentMap<Context, CSObj>> objs = Maps.newConcurrentMap();
+
+    private final ConcurrentMap<Invoke, ConcurrentMap<Context, CSCallSite>> callSites = Maps.newConcurrentMap();
+
+    private final ConcurrentMap<JMethod, ConcurrentMap<Context, CSMethod>> methods = Maps.newConcurrentMap();
+
+    private final ConcurrentMap<JField, StaticField> staticFields = Maps.newConcurrentMap();
+
+    private final ConcurrentMap<CSObj, ConcurrentMap<JField, InstanceField>> instanceFields = Maps.newConcurrentMap();
+
+    private final ConcurrentMap<CSObj, ArrayIndex> arrayIndexes = Maps.newConcurrentMap();
+
+    @Override
+    public CSVar getCSVar(Context context, Var var) {
+        return computeIfAbsent(vars, var, context,
+                (v, c) -> initializePointsToSet(new CSVar(v, c)));
+    }
+
+    @Override
+    public CSObj getCSObj(Context heapContext, Obj obj) {
+        return computeIfAbsent(objs, obj, heapContext,
+                (o, c) -> new CSObj(o, c));
+    }
+
+    @Override
+    public CSCallSite getCSCallSite(Context context, Invoke callSite) {
+        return computeIfAbsent(callSites, callSite, context,
+                (cs, c) -> new CSCallSite(cs, c));
+    }
+
+    @Override
+    public CSMethod getCSMethod(Context context, JMethod method) {
+        return computeIfAbsent(methods, method, context,
+                (m, c) -> new CSMethod(m, c));
+    }
+
+    @Override
+    public StaticField getStaticField(JField field) {
+        return staticFields.computeIfAbsent(field,
+                f -> initializePointsToSet(new StaticField(f)));
+    }
+
+    @Override
+    public InstanceField getInstanceField(CSObj base, JField field) {
+        return computeIfAbsent(instanceFields, base, field,
+                (b, f) -> initializePointsToSet(new InstanceField(b, f)));
+    }
+
+    @Override
+    public ArrayIndex getArrayIndex(CSObj array) {
+        return arrayIndexes.computeIfAbsent(array,
+                a -> initializePointsToSet(new ArrayIndex(a)));
+    }
+
+    @Override
+    public Collection<Var> getVars() {
+        return Collections.unmodifiableSet(vars.keySet());
+    }
+
+    @Override
+    public Collection<CSVar> getCSVarsOf(Var var) {
+        Map<Context, CSVar> csVars = vars.get(var);
+        return csVars != null ?
+                Collections.unmodifiableCollection(csVars.values()) : Set.of();
+    }
+
+    @Override
+    public Collection<CSVar> getCSVars() {
+        return values(vars);
+    }
+
+    @Override
+    public Collection<CSObj> getObjects() {
+        return values(objs);
+    }
+
+    @Override
+    public Collection<StaticField> getStaticFields() {
+        return Collections.unmodifiableCollection(staticFields.values());
+    }
+
+    @Override
+    public Collection<InstanceField> getInstanceFields() {
+        return values(instanceFields);
+    }
+
+    @Override
+    public Collection<ArrayIndex> getArrayIndexes() {
+        return Collections.unmodifiableCollection(arrayIndexes.values());
+    }
+
+    private static <K1, K2, V> V computeIfAbsent(
+            ConcurrentMap<K1, ConcurrentMap<K2, V>> map, K1 key1, K2 key2,
+            BiFunction<K1, K2, V> function) {
+        return map.computeIfAbsent(key1, k -> Maps.newConcurrentMap())
+                .computeIfAbsent(key2, k -> function.apply(key1, key2));
+    }
+
+    /**
+     * @return the elements in the inner maps of given map. The result
+     * is a snapshot which does not reflect later changes.
+     */
+    private static <V> Collection<V> values(
+            ConcurrentMap<?, ? extends ConcurrentMap<?, V>> map) {
+        return map.values()
+                .stream()
+                .flatMap(m -> m.values().stream())
+                .toList();
+    }
+
+    private static <P extends Pointer> P initializePointsToSet(P pointer) {
+        pointer.setPointsToSet(PointsToSetFactory.make());
+        return pointer;
+    }
+}
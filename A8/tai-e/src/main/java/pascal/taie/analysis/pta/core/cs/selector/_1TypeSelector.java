@@ -23,22 +23,19 @@
 package pascal.taie.analysis.pta.core.cs.selector;
 
 import pascal.taie.analysis.pta.core.cs.context.Context;
-import pascal.taie.analysis.pta.core.cs.context.ListContext;
 import pascal.taie.analysis.pta.core.cs.element.CSCallSite;
 import pascal.taie.analysis.pta.core.cs.element.CSMethod;
 import pascal.taie.analysis.pta.core.cs.element.CSObj;
 import pascal.taie.analysis.pta.core.heap.Obj;
 import pascal.taie.language.classes.JMethod;
+import pascal.taie.language.type.Type;
+
+import java.util.List;
 
 /**
  * Implementation of 1-type sensitivity.
  */
-public class _1TypeSelector implements ContextSelector {
-
-    @Override
-    public Context getEmptyContext() {
-        return ListContext.make();
-    }
+public class _1TypeSelector extends AbstractContextSelector<Type> {
 
     @Override
     public Context selectContext(CSCallSite callSite, JMethod callee) {
@@ -49,12 +46,12 @@ public class _1TypeSelector implements ContextSelector {
     @Override
     public Context selectContext(CSCallSite callSite, CSObj recv, JMethod callee) {
         // TODO - finish me
-        return ListContext.make(recv.getObject().getContainerType());
+        return factory.make(List.of(recv.getObject().getContainerType()));
     }
 
     @Override
     public Context selectHeapContext(CSMethod method, Obj obj) {
         // TODO - finish me
-        return ListContext.make();
+        return getEmptyContext();
     }
 }
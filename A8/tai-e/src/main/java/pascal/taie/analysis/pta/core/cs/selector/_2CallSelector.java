@@ -23,7 +23,6 @@
 package pascal.taie.analysis.pta.core.cs.selector;
 
 import pascal.taie.analysis.pta.core.cs.context.Context;
-import pascal.taie.analysis.pta.core.cs.context.ListContext;
 import pascal.taie.analysis.pta.core.cs.element.CSCallSite;
 import pascal.taie.analysis.pta.core.cs.element.CSMethod;
 import pascal.taie.analysis.pta.core.cs.element.CSObj;
@@ -34,12 +33,7 @@ import pascal.taie.language.classes.JMethod;
 /**
  * Implementation of 2-call-site sensitivity.
  */
-public class _2CallSelector implements ContextSelector {
-
-    @Override
-    public Context getEmptyContext() {
-        return ListContext.make();
-    }
+public class _2CallSelector extends AbstractContextSelector<Invoke> {
 
     @Override
     public Context selectContext(CSCallSite callSite, JMethod callee) {
@@ -50,20 +44,12 @@ public class _2CallSelector implements ContextSelector {
     @Override
     public Context selectContext(CSCallSite callSite, CSObj recv, JMethod callee) {
         // TODO - finish me
-        return switch (callSite.getContext().getLength()) {
-            case 0 -> ListContext.make(callSite.getCallSite());
-            case 1 -> ListContext.make(callSite.getContext().getElementAt(0), callSite.getCallSite());
-            default -> ListContext.make(callSite.getContext().getElementAt(1), callSite.getCallSite());
-        };
+        return factory.append(callSite.getContext(), callSite.getCallSite(), 2);
     }
 
     @Override
     public Context selectHeapContext(CSMethod method, Obj obj) {
         // TODO - finish me
-        return switch (method.getContext().getLength()) {
-            case 0 -> ListContext.make();
-            case 1 -> ListContext.make(method.getContext().getElementAt(0));
-            default -> ListContext.make(method.getContext().getElementAt(1));
-        };
+        return factory.makeLastK(method.getContext(), 1);
     }
 }
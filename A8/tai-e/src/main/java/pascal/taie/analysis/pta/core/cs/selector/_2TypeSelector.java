@@ -23,7 +23,6 @@
 package pascal.taie.analysis.pta.core.cs.selector;
 
 import pascal.taie.analysis.pta.core.cs.context.Context;
-import pascal.taie.analysis.pta.core.cs.context.ListContext;
 import pascal.taie.analysis.pta.core.cs.element.CSCallSite;
 import pascal.taie.analysis.pta.core.cs.element.CSMethod;
 import pascal.taie.analysis.pta.core.cs.element.CSObj;
@@ -34,12 +33,7 @@ import pascal.taie.language.type.Type;
 /**
  * Implementation of 2-type sensitivity.
  */
-public class _2TypeSelector implements ContextSelector {
-
-    @Override
-    public Context getEmptyContext() {
-        return ListContext.make();
-    }
+public class _2TypeSelector extends AbstractContextSelector<Type> {
 
     @Override
     public Context selectContext(CSCallSite callSite, JMethod callee) {
@@ -50,20 +44,12 @@ public class _2TypeSelector implements ContextSelector {
     @Override
     public Context selectContext(CSCallSite callSite, CSObj recv, JMethod callee) {
         // TODO - finish me
-        return switch (recv.getContext().getLength()) {
-            case 0 -> ListContext.make(recv.getObject().getContainerType());
-            case 1 -> ListContext.make(recv.getContext().getElementAt(0), recv.getObject().getContainerType());
-            default -> ListContext.make(recv.getContext().getElementAt(1), recv.getObject().getContainerType());
-        };
+        return factory.append(recv.getContext(), recv.getObject().getContainerType(), 2);
     }
 
     @Override
     public Context selectHeapContext(CSMethod method, Obj obj) {
         // TODO - finish me
-        return switch (method.getContext().getLength()) {
-            case 0 -> ListContext.make();
-            case 1 -> ListContext.make(method.getContext().getElementAt(0));
-            default -> ListContext.make(method.getContext().getElementAt(1));
-        };
+        return factory.makeLastK(method.getContext(), 1);
     }
 }
@@ -45,8 +45,10 @@ class TaintManager {
      * @param source invocation to the source method, i.e., source call
      * @param type   type of the taint object
      * @return the taint object for given source and type.
+     * This method is synchronized, as the parallel pointer analysis
+     * makes taint objects concurrently.
      */
-    Obj makeTaint(Invoke source, Type type) {
+    synchronized Obj makeTaint(Invoke source, Type type) {
         return taints.computeIfAbsent(source, type,
                 (s, t) -> new MockObj(TAINT_DESC, s, t));
     }
@@ -23,6 +23,7 @@
 package pascal.taie.analysis.pta.pts;
 
 import pascal.taie.analysis.pta.core.cs.element.CSObj;
+import pascal.taie.config.ConfigException;
 import pascal.taie.util.collection.Sets;
 
 import java.util.Set;
@@ -35,8 +36,33 @@ public class PointsToSetFactory {
 
     private static final Supplier<Set<CSObj>> setFactory = Sets::newHybridSet;
 
+    /**
+     * Indexer of the objects in bit-set points-to sets,
+     * or null if the points-to sets are hybrid sets.
+     */
+    private static CSObjIndexer indexer;
+
+    /**
+     * Sets the representation of the points-to sets made afterwards,
+     * i.e., "hybrid" (hash-based hybrid sets, the default)
+     * or "bitset" (sparse bit sets over object IDs).
+     * This should be called before a pointer analysis starts,
+     * as the points-to sets of different representations cannot
+     * be mixed efficiently.
+     */
+    public static void setRepresentation(String pts) {
+        if (pts == null || pts.equals("hybrid")) {
+            indexer = null;
+        } else if (pts.equals("bitset")) {
+            indexer = new CSObjIndexer();
+        } else {
+            throw new ConfigException("Unknown points-to set representation: " + pts);
+        }
+    }
+
     public static PointsToSet make() {
-        return new DelegatePointsToSet(setFactory.get());
+        return indexer != null ? new BitSetPointsToSet(indexer)
+                : new DelegatePointsToSet(setFactory.get());
     }
 
     /**
@@ -70,4 +70,25 @@ public class TaintTest {
         Tests.testCSPTA(DIR, "TaintInList",
                 "cs:2-obj;taint-config:src/test/resources/pta/taint/taint-config.yml");
     }
+
+    @Test
+    public void testTaintInListCycleElimination() {
+        Tests.testCSPTA(DIR, "TaintInList",
+                "cs:2-obj;taint-config:src/test/resources/pta/taint/taint-config.yml",
+                "cycle-elimination:true;cycle-detection-threshold:1");
+    }
+
+    @Test
+    public void testInterTaintTransferParallel() {
+        Tests.testCSPTA(DIR, "InterTaintTransfer",
+                "cs:2-call;taint-config:src/test/resources/pta/taint/taint-config.yml",
+                "threads:4");
+    }
+
+    @Test
+    public void testTaintInListParallel() {
+        Tests.testCSPTA(DIR, "TaintInList",
+                "cs:2-obj;taint-config:src/test/resources/pta/taint/taint-config.yml",
+                "threads:4;cycle-elimination:true;cycle-detection-threshold:1");
+    }
 }